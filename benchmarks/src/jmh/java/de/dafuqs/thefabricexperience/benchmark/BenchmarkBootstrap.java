@@ -0,0 +1,23 @@
+package de.dafuqs.thefabricexperience.benchmark;
+
+import net.minecraft.*;
+
+/**
+ * Initializes the vanilla registries once per benchmark JVM, so items and NBT can be used without starting a game.
+ */
+final class BenchmarkBootstrap {
+
+	private static boolean initialized = false;
+
+	static synchronized void init() {
+		if (!initialized) {
+			SharedConstants.createGameVersion();
+			Bootstrap.initialize();
+			initialized = true;
+		}
+	}
+
+	private BenchmarkBootstrap() {
+	}
+
+}
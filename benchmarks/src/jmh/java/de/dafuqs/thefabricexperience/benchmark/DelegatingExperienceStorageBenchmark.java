@@ -0,0 +1,48 @@
+package de.dafuqs.thefabricexperience.benchmark;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Insert and extract through chains of {@link DelegatingExperienceStorage}s of varying length.
+ */
+@State(Scope.Thread)
+@SuppressWarnings("UnstableApiUsage")
+public class DelegatingExperienceStorageBenchmark {
+
+	@Param({"1", "8", "32"})
+	public int chainLength;
+
+	private ExperienceStorage chain;
+
+	@Setup
+	public void setup() {
+		BenchmarkBootstrap.init();
+
+		SimpleExperienceStorage backing = new SimpleExperienceStorage(1_000_000, 1_000, 1_000);
+		backing.amount = 500_000;
+
+		ExperienceStorage storage = backing;
+		for (int i = 0; i < chainLength; i++) {
+			storage = new DelegatingExperienceStorage(storage, () -> true);
+		}
+		chain = storage;
+	}
+
+	@Benchmark
+	public long insertExtract() {
+		try (Transaction transaction = Transaction.openOuter()) {
+			long moved = chain.insert(100, transaction) + chain.extract(100, transaction);
+			transaction.commit();
+			return moved;
+		}
+	}
+
+	@Benchmark
+	public long getAmount() {
+		return chain.getAmount();
+	}
+
+}
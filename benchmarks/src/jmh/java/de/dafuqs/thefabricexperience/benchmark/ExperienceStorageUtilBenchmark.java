@@ -0,0 +1,111 @@
+package de.dafuqs.thefabricexperience.benchmark;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+
+/**
+ * {@link ExperienceStorageUtil#move} between two storages, and batch distribution to many targets.
+ * The {@code exact} parameter toggles whether the storages advertise exact simulation,
+ * which decides between the single pass and the simulating transfer path.
+ */
+@State(Scope.Thread)
+@SuppressWarnings("UnstableApiUsage")
+public class ExperienceStorageUtilBenchmark {
+
+	@Param({"true", "false"})
+	public boolean exact;
+
+	@Param({"30"})
+	public int targetCount;
+
+	private ExperienceStorage source;
+	private ExperienceStorage target;
+	private List<ExperienceStorage> targets;
+	private SimpleExperienceStorage sourceStorage;
+	private SimpleExperienceStorage targetStorage;
+	private final List<SimpleExperienceStorage> targetStorages = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		BenchmarkBootstrap.init();
+
+		sourceStorage = new SimpleExperienceStorage(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+		targetStorage = new SimpleExperienceStorage(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+		source = wrap(sourceStorage);
+		target = wrap(targetStorage);
+
+		targets = new ArrayList<>();
+		for (int i = 0; i < targetCount; i++) {
+			SimpleExperienceStorage storage = new SimpleExperienceStorage(Long.MAX_VALUE, 100, 100);
+			targetStorages.add(storage);
+			targets.add(wrap(storage));
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void refill() {
+		sourceStorage.amount = Long.MAX_VALUE / 2;
+		targetStorage.amount = 0;
+		for (SimpleExperienceStorage storage : targetStorages) {
+			storage.amount = 0;
+		}
+	}
+
+	@Benchmark
+	public long move() {
+		return ExperienceStorageUtil.move(source, target, 10, null);
+	}
+
+	@Benchmark
+	public long moveInTransaction() {
+		try (Transaction transaction = Transaction.openOuter()) {
+			long moved = ExperienceStorageUtil.move(source, target, 10, transaction);
+			transaction.commit();
+			return moved;
+		}
+	}
+
+	@Benchmark
+	public long distributeRoundRobin() {
+		return ExperienceStorageUtil.distribute(source, targets, 10L * targetCount, ExperienceTransferStrategy.ROUND_ROBIN, null);
+	}
+
+	@Benchmark
+	public long distributeFillFirst() {
+		return ExperienceStorageUtil.distribute(source, targets, 10L * targetCount, ExperienceTransferStrategy.FILL_FIRST, null);
+	}
+
+	private ExperienceStorage wrap(SimpleExperienceStorage storage) {
+		return exact ? storage : new InexactStorage(storage);
+	}
+
+	/**
+	 * Forwards to a storage while hiding its exact simulation support.
+	 */
+	private record InexactStorage(ExperienceStorage delegate) implements ExperienceStorage {
+		@Override
+		public long insert(long maxAmount, TransactionContext transaction) {
+			return delegate.insert(maxAmount, transaction);
+		}
+
+		@Override
+		public long extract(long maxAmount, TransactionContext transaction) {
+			return delegate.extract(maxAmount, transaction);
+		}
+
+		@Override
+		public long getAmount() {
+			return delegate.getAmount();
+		}
+
+		@Override
+		public long getCapacity() {
+			return delegate.getCapacity();
+		}
+	}
+
+}
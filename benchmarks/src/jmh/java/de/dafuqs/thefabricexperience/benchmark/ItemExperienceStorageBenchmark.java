@@ -0,0 +1,159 @@
+package de.dafuqs.thefabricexperience.benchmark;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.fabricmc.fabric.api.transfer.v1.context.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.base.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.base.*;
+import net.minecraft.item.*;
+import net.minecraft.text.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+
+/**
+ * Insert and extract on item experience storages created by {@link SimpleExperienceStorageItem#createStorage},
+ * which is backed by {@code SimpleItemExperienceStorageImpl}.
+ *
+ * <p>The stack is renamed so it always carries NBT: blank and tag-less item variants are cached by Fabric through mixins,
+ * which are not applied when running outside of the game.
+ */
+@State(Scope.Thread)
+@SuppressWarnings("UnstableApiUsage")
+public class ItemExperienceStorageBenchmark {
+
+	@Param({"1", "16"})
+	public int count;
+
+	@Param({"EVEN", "SEQUENTIAL"})
+	public SimpleExperienceStorageItem.FillMode fillMode;
+
+	private BenchmarkSlot slot;
+	private ExperienceStorage storage;
+
+	@Setup
+	public void setup() {
+		BenchmarkBootstrap.init();
+
+		ItemStack stack = new ItemStack(Items.EXPERIENCE_BOTTLE, count);
+		stack.setCustomName(Text.literal("Benchmark"));
+		SimpleExperienceStorageItem.setStoredExperienceUnchecked(stack, 500);
+
+		slot = new BenchmarkSlot(ItemVariant.of(stack), count);
+		storage = SimpleExperienceStorageItem.createStorage(new BenchmarkContext(slot), 1_000, 100, 100, fillMode);
+	}
+
+	/**
+	 * The transaction is aborted, so every invocation starts from the same stack.
+	 */
+	@Benchmark
+	public long insertExtract() {
+		try (Transaction transaction = Transaction.openOuter()) {
+			return storage.insert(10L * count + 5, transaction) + storage.extract(10L * count + 5, transaction);
+		}
+	}
+
+	@Benchmark
+	public long simulateInsert() {
+		return storage.simulateInsert(10L * count, null);
+	}
+
+	@Benchmark
+	public long getAmount() {
+		return storage.getAmount();
+	}
+
+	/**
+	 * A context around a single transactional slot. Overflow is accepted and discarded, like an endless player inventory would.
+	 */
+	private record BenchmarkContext(BenchmarkSlot slot) implements ContainerItemContext {
+		@Override
+		public SingleSlotStorage<ItemVariant> getMainSlot() {
+			return slot;
+		}
+
+		@Override
+		public long insertOverflow(ItemVariant itemVariant, long maxAmount, TransactionContext transactionContext) {
+			return maxAmount;
+		}
+
+		@Override
+		public List<SingleSlotStorage<ItemVariant>> getAdditionalSlots() {
+			return List.of();
+		}
+	}
+
+	/**
+	 * A transactional slot that never needs the blank variant: an emptied slot keeps its last variant with an amount of 0.
+	 */
+	private static class BenchmarkSlot extends SnapshotParticipant<ResourceAmount<ItemVariant>> implements SingleSlotStorage<ItemVariant> {
+		private ItemVariant variant;
+		private long amount;
+
+		private BenchmarkSlot(ItemVariant variant, long amount) {
+			this.variant = variant;
+			this.amount = amount;
+		}
+
+		@Override
+		public long insert(ItemVariant insertedVariant, long maxAmount, TransactionContext transaction) {
+			if (amount > 0 && !insertedVariant.equals(variant)) {
+				return 0;
+			}
+
+			long inserted = Math.min(maxAmount, 64 - amount);
+			if (inserted > 0) {
+				updateSnapshots(transaction);
+				variant = insertedVariant;
+				amount += inserted;
+			}
+			return inserted;
+		}
+
+		@Override
+		public long extract(ItemVariant extractedVariant, long maxAmount, TransactionContext transaction) {
+			if (amount == 0 || !extractedVariant.equals(variant)) {
+				return 0;
+			}
+
+			long extracted = Math.min(maxAmount, amount);
+			updateSnapshots(transaction);
+			amount -= extracted;
+			return extracted;
+		}
+
+		@Override
+		public boolean isResourceBlank() {
+			return amount == 0;
+		}
+
+		@Override
+		public ItemVariant getResource() {
+			return variant;
+		}
+
+		@Override
+		public long getAmount() {
+			return amount;
+		}
+
+		@Override
+		public long getCapacity() {
+			return 64;
+		}
+
+		@Override
+		protected ResourceAmount<ItemVariant> createSnapshot() {
+			return new ResourceAmount<>(variant, amount);
+		}
+
+		@Override
+		protected void readSnapshot(ResourceAmount<ItemVariant> snapshot) {
+			variant = snapshot.resource();
+			amount = snapshot.amount();
+		}
+	}
+
+}
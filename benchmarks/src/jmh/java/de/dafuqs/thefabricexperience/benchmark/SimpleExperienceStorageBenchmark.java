@@ -0,0 +1,55 @@
+package de.dafuqs.thefabricexperience.benchmark;
+
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Insert and extract on a {@link SimpleExperienceStorage}, at varying transaction depths.
+ * Every operation opens {@code depth} transactions, modifies the storage in the innermost one and commits all of them.
+ */
+@State(Scope.Thread)
+@SuppressWarnings("UnstableApiUsage")
+public class SimpleExperienceStorageBenchmark {
+
+	@Param({"1", "4", "16"})
+	public int depth;
+
+	private SimpleExperienceStorage storage;
+
+	@Setup
+	public void setup() {
+		BenchmarkBootstrap.init();
+		storage = new SimpleExperienceStorage(1_000_000, 1_000, 1_000);
+		storage.amount = 500_000;
+	}
+
+	@Benchmark
+	public long insertExtract() {
+		try (Transaction outer = Transaction.openOuter()) {
+			long moved = insertExtract(outer, depth - 1);
+			outer.commit();
+			return moved;
+		}
+	}
+
+	@Benchmark
+	public long insertExtractAborted() {
+		try (Transaction outer = Transaction.openOuter()) {
+			return insertExtract(outer, depth - 1);
+		}
+	}
+
+	private long insertExtract(Transaction transaction, int remainingDepth) {
+		if (remainingDepth == 0) {
+			return storage.insert(100, transaction) + storage.extract(100, transaction);
+		}
+
+		try (Transaction nested = transaction.openNested()) {
+			long moved = insertExtract(nested, remainingDepth - 1);
+			nested.commit();
+			return moved;
+		}
+	}
+
+}
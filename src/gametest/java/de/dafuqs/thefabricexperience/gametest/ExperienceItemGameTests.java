@@ -0,0 +1,64 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.fabricmc.fabric.api.gametest.v1.*;
+import net.fabricmc.fabric.api.transfer.v1.context.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.inventory.*;
+import net.minecraft.item.*;
+import net.minecraft.test.*;
+
+/**
+ * Filling and draining stacked experience items in contexts without room for split off items.
+ */
+@SuppressWarnings("UnstableApiUsage")
+public class ExperienceItemGameTests implements FabricGameTest {
+
+	/**
+	 * A single slot has nowhere to put the split off items of a sequential stack, so the whole stack is filled evenly instead.
+	 */
+	@GameTest(templateName = EMPTY_STRUCTURE)
+	public void sequentialStackInSingleSlot(TestContext context) {
+		SimpleInventory inventory = new SimpleInventory(1);
+		inventory.setStack(0, new ItemStack(TheFabricExperienceGameTest.SEQUENTIAL_EXPERIENCE_TOME, 4));
+		ContainerItemContext ctx = ContainerItemContext.ofSingleSlot(InventoryStorage.of(inventory, null).getSlot(0));
+
+		ExperienceStorage storage = ExperienceStorage.ITEM.find(inventory.getStack(0), ctx);
+		if (storage == null) {
+			throw new GameTestException("Sequential experience tome has no storage");
+		}
+
+		try (Transaction transaction = Transaction.openOuter()) {
+			long inserted = storage.insert(200, transaction);
+			if (inserted != 200) {
+				throw new GameTestException("Expected 200 experience to be inserted, got " + inserted);
+			}
+			transaction.commit();
+		}
+		expectStack(inventory.getStack(0), 4, 50);
+
+		try (Transaction transaction = Transaction.openOuter()) {
+			long extracted = storage.extract(120, transaction);
+			if (extracted != 120) {
+				throw new GameTestException("Expected 120 experience to be extracted, got " + extracted);
+			}
+			transaction.commit();
+		}
+		expectStack(inventory.getStack(0), 4, 20);
+
+		context.complete();
+	}
+
+	private static void expectStack(ItemStack stack, int count, long experiencePerItem) {
+		if (stack.getCount() != count) {
+			throw new GameTestException("Expected the stack to stay at " + count + " items, got " + stack.getCount());
+		}
+		long stored = SimpleExperienceStorageItem.getStoredExperienceUnchecked(stack);
+		if (stored != experiencePerItem) {
+			throw new GameTestException("Expected " + experiencePerItem + " experience per item, got " + stored);
+		}
+	}
+
+}
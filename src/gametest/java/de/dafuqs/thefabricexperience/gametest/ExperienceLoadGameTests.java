@@ -0,0 +1,246 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import de.dafuqs.thefabricexperience.api.fluid.*;
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.fabricmc.fabric.api.gametest.v1.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.minecraft.block.*;
+import net.minecraft.block.entity.*;
+import net.minecraft.item.*;
+import net.minecraft.test.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Load scenarios that grow large setups until a tick takes longer than {@link #MSPT_BUDGET}, and report MSPT, throughput and allocation rates of every size.
+ * Each scenario runs in its own batch, so they do not skew each other's numbers.
+ *
+ * <p>Setups are built in tiers of {@link #SIZE}×{@link #SIZE}×{@link #HEIGHT} blocks, stacked on top of each other with a free layer in between.
+ * Every step doubles the number of tiers, lets the setup warm up, and measures the real duration of each tick in its window.
+ * Scenarios stop at the first step over budget, or once the tiers reach the top of the world.
+ */
+public class ExperienceLoadGameTests implements FabricGameTest {
+
+	private static final int SIZE = 8;
+	private static final int HEIGHT = 6;
+	private static final int TIER_HEIGHT = HEIGHT + 1;
+	private static final double MSPT_BUDGET = 50;
+	private static final int WARMUP_TICKS = 20;
+	private static final int MEASURED_TICKS = 60;
+	private static final int MAX_STEPS = 8;
+	private static final int TICK_LIMIT = MAX_STEPS * (WARMUP_TICKS + MEASURED_TICKS) + 20;
+
+	/**
+	 * A solid grid of tanks, every other one full, pushing experience to each other.
+	 */
+	@GameTest(templateName = EMPTY_STRUCTURE, batchId = "xp_load_tanks", tickLimit = TICK_LIMIT)
+	public void tankGrid(TestContext context) {
+		LoadReport.Counters counters = new LoadReport.Counters();
+		List<TestTankBlockEntity> tanks = new ArrayList<>();
+
+		new ScalingRun(context, "tank_grid", counters, new Scenario() {
+			private long expectedTotal = 0;
+
+			@Override
+			public void grow(int fromTier, int toTier) {
+				forEachGridPos(fromTier, toTier, pos -> {
+					context.setBlockState(pos, TheFabricExperienceGameTest.TANK);
+					TestTankBlockEntity tank = context.getBlockEntity(pos);
+					tank.counters = counters;
+					if ((pos.getX() + pos.getY() + pos.getZ()) % 2 == 0) {
+						tank.container.amount = TestTankBlockEntity.CAPACITY;
+					}
+					expectedTotal += tank.container.amount;
+					tanks.add(tank);
+				});
+			}
+
+			@Override
+			public void verify(int settledTiers) {
+				long total = tanks.stream().mapToLong(tank -> tank.container.amount).sum();
+				if (total != expectedTotal) {
+					throw new GameTestException("Experience was created or voided: expected " + expectedTotal + ", got " + total);
+				}
+			}
+		}).start();
+	}
+
+	/**
+	 * Liquid experience sources on top of empty volumes, flowing down and spreading.
+	 */
+	@GameTest(templateName = EMPTY_STRUCTURE, batchId = "xp_load_fluid", tickLimit = TICK_LIMIT)
+	public void liquidExperiencePool(TestContext context) {
+		new ScalingRun(context, "liquid_xp_pool", new LoadReport.Counters(), new Scenario() {
+			@Override
+			public void grow(int fromTier, int toTier) {
+				for (int tier = fromTier; tier < toTier; tier++) {
+					int floorY = tier * TIER_HEIGHT;
+					for (int x = 0; x < SIZE; x++) {
+						for (int z = 0; z < SIZE; z++) {
+							// The lowest tier stands on the floor of the structure
+							if (tier > 0) {
+								context.setBlockState(new BlockPos(x, floorY, z), Blocks.STONE);
+							}
+							if (x % 2 == 0 && z % 2 == 0) {
+								context.setBlockState(new BlockPos(x, floorY + HEIGHT, z), LiquidXP.LIQUID_XP_FLUID_BLOCK.getDefaultState());
+							}
+						}
+					}
+				}
+			}
+
+			@Override
+			public void verify(int settledTiers) {
+				for (int tier = 0; tier < settledTiers; tier++) {
+					for (int x = 0; x < SIZE; x += 2) {
+						for (int z = 0; z < SIZE; z += 2) {
+							BlockPos floorPos = new BlockPos(x, tier * TIER_HEIGHT + 1, z);
+							if (!context.getBlockState(floorPos).getFluidState().getFluid().matchesType(LiquidXP.LIQUID_XP)) {
+								context.throwPositionedException("Liquid experience did not flow down to the floor of the volume", floorPos);
+							}
+						}
+					}
+				}
+			}
+		}).start();
+	}
+
+	/**
+	 * Barrels full of stacked experience items, drained into a storage every tick.
+	 */
+	@GameTest(templateName = EMPTY_STRUCTURE, batchId = "xp_load_items", tickLimit = TICK_LIMIT)
+	public void experienceItemInventories(TestContext context) {
+		LoadReport.Counters counters = new LoadReport.Counters();
+		SimpleExperienceStorage sink = new SimpleExperienceStorage(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+		List<InventoryStorage> inventories = new ArrayList<>();
+
+		new ScalingRun(context, "experience_item_inventories", counters, new Scenario() {
+			@Override
+			public void grow(int fromTier, int toTier) {
+				forEachGridPos(fromTier, toTier, pos -> {
+					context.setBlockState(pos, Blocks.BARREL);
+					LootableContainerBlockEntity container = context.getBlockEntity(pos);
+					for (int slot = 0; slot < container.size(); slot++) {
+						ItemStack stack = new ItemStack(TheFabricExperienceGameTest.EXPERIENCE_TOME, 16);
+						SimpleExperienceStorageItem.setStoredExperienceUnchecked(stack, 500);
+						container.setStack(slot, stack);
+					}
+					inventories.add(InventoryStorage.of(container, null));
+				});
+			}
+
+			@Override
+			public void tick() {
+				for (InventoryStorage inventory : inventories) {
+					counters.onTransfer(ExperienceStorageUtil.drainInventory(inventory, sink, 1_000, null));
+				}
+			}
+
+			@Override
+			public void verify(int settledTiers) {
+				if (sink.amount == 0) {
+					throw new GameTestException("No experience was drained from the inventories");
+				}
+			}
+		}).start();
+	}
+
+	private static void forEachGridPos(int fromTier, int toTier, java.util.function.Consumer<BlockPos> consumer) {
+		for (int tier = fromTier; tier < toTier; tier++) {
+			for (int y = 1; y <= HEIGHT; y++) {
+				for (int x = 0; x < SIZE; x++) {
+					for (int z = 0; z < SIZE; z++) {
+						consumer.accept(new BlockPos(x, tier * TIER_HEIGHT + y, z));
+					}
+				}
+			}
+		}
+	}
+
+	private interface Scenario {
+
+		/**
+		 * Add the tiers from {@code fromTier} (inclusive) to {@code toTier} (exclusive) to the setup.
+		 */
+		void grow(int fromTier, int toTier);
+
+		/**
+		 * Called every tick while the scenario runs.
+		 */
+		default void tick() {
+		}
+
+		/**
+		 * Throw if the setup did not behave as expected. The lowest {@code settledTiers} tiers had at least a full step to settle.
+		 */
+		void verify(int settledTiers);
+
+	}
+
+	/**
+	 * Grows a single scenario step by step, and keeps track of the report of the current step.
+	 */
+	private static final class ScalingRun {
+
+		private final TestContext context;
+		private final String name;
+		private final LoadReport.Counters counters;
+		private final Scenario scenario;
+		private final int maxTiers;
+		private int tiers = 0;
+		private int steps = 0;
+		private @Nullable LoadReport report;
+
+		private ScalingRun(TestContext context, String name, LoadReport.Counters counters, Scenario scenario) {
+			this.context = context;
+			this.name = name;
+			this.counters = counters;
+			this.scenario = scenario;
+			int originY = context.getAbsolutePos(BlockPos.ORIGIN).getY();
+			this.maxTiers = Math.max(1, (context.getWorld().getTopY() - originY - 1) / TIER_HEIGHT);
+		}
+
+		private void start() {
+			context.runAtEveryTick(() -> {
+				scenario.tick();
+				if (report != null) {
+					report.sampleTick();
+				}
+			});
+			step(1);
+		}
+
+		private void step(int newTiers) {
+			int previousTiers = tiers;
+			scenario.grow(tiers, newTiers);
+			tiers = newTiers;
+			steps++;
+
+			context.waitAndRun(WARMUP_TICKS, () -> {
+				LoadReport stepReport = LoadReport.start(name, tiers * SIZE * SIZE * HEIGHT, context.getWorld().getServer(), counters);
+				report = stepReport;
+				context.waitAndRun(MEASURED_TICKS, () -> {
+					report = null;
+					double mspt = stepReport.finish();
+					// Tiers added by this step had a single step to settle, which is only enough without the load of the others
+					scenario.verify(previousTiers == 0 ? tiers : previousTiers);
+
+					if (mspt > MSPT_BUDGET) {
+						LoadReport.logBudget(name, tiers * SIZE * SIZE * HEIGHT, MSPT_BUDGET, true);
+						context.complete();
+					} else if (tiers >= maxTiers || steps >= MAX_STEPS) {
+						LoadReport.logBudget(name, tiers * SIZE * SIZE * HEIGHT, MSPT_BUDGET, false);
+						context.complete();
+					} else {
+						step(Math.min(tiers * 2, maxTiers));
+					}
+				});
+			});
+		}
+
+	}
+
+}
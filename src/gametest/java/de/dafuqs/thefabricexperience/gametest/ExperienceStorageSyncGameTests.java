@@ -0,0 +1,83 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import de.dafuqs.thefabricexperience.api.sync.*;
+import de.dafuqs.thefabricexperience.impl.sync.*;
+import net.fabricmc.fabric.api.gametest.v1.*;
+import net.minecraft.network.*;
+import net.minecraft.test.*;
+import net.minecraft.util.math.*;
+import net.minecraft.world.*;
+
+import java.util.*;
+
+/**
+ * Round trips of the storage sync packets, from the server session to the client state.
+ */
+public class ExperienceStorageSyncGameTests implements FabricGameTest {
+
+	private static final long TANK = BlockPos.asLong(1, 2, 3);
+	private static final long OTHER_TANK = BlockPos.asLong(-40, 70, 12);
+
+	/**
+	 * Respawning replaces the player entity, but keeps the connection. The client keeps its values, so the server has to as well.
+	 */
+	@GameTest(templateName = EMPTY_STRUCTURE)
+	public void roundTripAcrossRespawnAndWorldChange(TestContext context) {
+		UUID playerUuid = UUID.randomUUID();
+		ExperienceSyncState client = new ExperienceSyncState();
+
+		try {
+			ExperienceSyncSession session = ExperienceStorageSync.getSession(playerUuid, World.OVERWORLD);
+			session.update(TANK, 100, 1000);
+			session.update(OTHER_TANK, 5, 10);
+			roundTrip(session, client);
+			expectSynced(client, TANK, 100, 1000);
+			expectSynced(client, OTHER_TANK, 5, 10);
+
+			// Respawn in the same world
+			session = ExperienceStorageSync.getSession(playerUuid, World.OVERWORLD);
+			if (session.update(OTHER_TANK, 5, 10)) {
+				throw new GameTestException("Unchanged values were queued again after a respawn");
+			}
+			session.update(TANK, 40, 1000);
+			roundTrip(session, client);
+			expectSynced(client, TANK, 40, 1000);
+			expectSynced(client, OTHER_TANK, 5, 10);
+
+			// Removal
+			session.remove(OTHER_TANK);
+			roundTrip(session, client);
+			if (client.contains(OTHER_TANK)) {
+				throw new GameTestException("Removed storage is still synced");
+			}
+
+			// Changing worlds starts both sides over
+			session = ExperienceStorageSync.getSession(playerUuid, World.NETHER);
+			session.update(OTHER_TANK, 7, 8);
+			roundTrip(session, client);
+			expectSynced(client, OTHER_TANK, 7, 8);
+			if (client.contains(TANK) || client.size() != 1) {
+				throw new GameTestException("Values of the previous world are still synced");
+			}
+		} finally {
+			ExperienceStorageSync.onPlayerDisconnect(playerUuid);
+		}
+
+		context.complete();
+	}
+
+	private static void roundTrip(ExperienceSyncSession session, ExperienceSyncState client) {
+		PacketByteBuf buf = session.flush();
+		if (buf != null) {
+			client.apply(ExperienceSyncState.decode(buf));
+		}
+	}
+
+	private static void expectSynced(ExperienceSyncState client, long pos, long amount, long capacity) {
+		if (!client.contains(pos) || client.getAmount(pos) != amount || client.getCapacity(pos) != capacity) {
+			throw new GameTestException("Expected " + amount + "/" + capacity + " at " + BlockPos.fromLong(pos)
+					+ ", got " + client.getAmount(pos) + "/" + client.getCapacity(pos));
+		}
+	}
+
+}
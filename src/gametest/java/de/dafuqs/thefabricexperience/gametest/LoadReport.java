@@ -0,0 +1,137 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import net.fabricmc.loader.api.*;
+import net.minecraft.server.*;
+import org.slf4j.*;
+
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Measures one step of a load scenario between {@link #start} and {@link #finish}, then logs the results
+ * and appends them to {@code xp-load-report.csv} in the game directory, so numbers can be compared across versions.
+ *
+ * <p>Tick times are the real durations of the ticks inside the window, sampled every tick with {@link #sampleTick},
+ * not the smoothed average of the server. Allocation rates are measured on the server thread, which runs both the game tests and the world ticks.
+ */
+public class LoadReport {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("TheFabricExperience Load Report");
+	private static final String REPORT_FILE = "xp-load-report.csv";
+	private static final String HEADER = "version,scenario,size,ticks,mspt,max_mspt,transfers_per_tick,amount_per_tick,allocated_bytes_per_tick";
+
+	private final String scenario;
+	private final int size;
+	private final MinecraftServer server;
+	private final Counters counters;
+	private final int startTicks;
+	private final long startAllocatedBytes;
+	private final long startTransfers;
+	private final long startAmount;
+	private long sampledNanos = 0;
+	private long maxTickNanos = 0;
+	private int sampledTicks = 0;
+
+	private LoadReport(String scenario, int size, MinecraftServer server, Counters counters) {
+		this.scenario = scenario;
+		this.size = size;
+		this.server = server;
+		this.counters = counters;
+		this.startTicks = server.getTicks();
+		this.startAllocatedBytes = allocatedBytes();
+		this.startTransfers = counters.transferCount;
+		this.startAmount = counters.transferredAmount;
+	}
+
+	/**
+	 * @param size The number of blocks of the measured setup, reported with the results.
+	 */
+	public static LoadReport start(String scenario, int size, MinecraftServer server, Counters counters) {
+		return new LoadReport(scenario, size, server, counters);
+	}
+
+	/**
+	 * Record the duration of the last completed server tick. Call once per tick while the report is running.
+	 */
+	public void sampleTick() {
+		// The current tick is still running, its length is only written once it is done
+		long tickNanos = server.lastTickLengths[Math.floorMod(server.getTicks() - 1, server.lastTickLengths.length)];
+		sampledNanos += tickNanos;
+		maxTickNanos = Math.max(maxTickNanos, tickNanos);
+		sampledTicks++;
+	}
+
+	/**
+	 * Log and write the results.
+	 *
+	 * @return The average duration of the sampled ticks, in milliseconds.
+	 */
+	public double finish() {
+		int ticks = Math.max(1, server.getTicks() - startTicks);
+		double mspt = sampledTicks == 0 ? 0 : sampledNanos / 1_000_000.0 / sampledTicks;
+		double maxMspt = maxTickNanos / 1_000_000.0;
+		double transfersPerTick = (double) (counters.transferCount - startTransfers) / ticks;
+		double amountPerTick = (double) (counters.transferredAmount - startAmount) / ticks;
+		double allocatedBytesPerTick = (double) (allocatedBytes() - startAllocatedBytes) / ticks;
+
+		LOGGER.info("[{}] {} blocks, {} ticks, {} mspt (max {}), {} transfers/tick, {} xp/tick, {} allocated bytes/tick",
+				scenario, size, ticks, String.format(Locale.ROOT, "%.2f", mspt), String.format(Locale.ROOT, "%.2f", maxMspt),
+				String.format(Locale.ROOT, "%.1f", transfersPerTick), String.format(Locale.ROOT, "%.1f", amountPerTick), String.format(Locale.ROOT, "%.0f", allocatedBytesPerTick));
+
+		String version = FabricLoader.getInstance().getModContainer("thefabricexperience")
+				.map(container -> container.getMetadata().getVersion().getFriendlyString())
+				.orElse("unknown");
+		String line = String.format(Locale.ROOT, "%s,%s,%d,%d,%.3f,%.3f,%.2f,%.2f,%.0f", version, scenario, size, ticks, mspt, maxMspt, transfersPerTick, amountPerTick, allocatedBytesPerTick);
+
+		Path reportFile = FabricLoader.getInstance().getGameDir().resolve(REPORT_FILE);
+		try {
+			if (!Files.exists(reportFile)) {
+				Files.writeString(reportFile, HEADER + System.lineSeparator(), StandardCharsets.UTF_8);
+			}
+			Files.writeString(reportFile, line + System.lineSeparator(), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			LOGGER.error("Could not write load report to " + reportFile, e);
+		}
+		return mspt;
+	}
+
+	/**
+	 * Log where a scenario ended: the first size over the tick budget, or the largest size that could be built.
+	 */
+	public static void logBudget(String scenario, int size, double budgetMspt, boolean exceeded) {
+		if (exceeded) {
+			LOGGER.info("[{}] exceeded {} mspt at {} blocks", scenario, budgetMspt, size);
+		} else {
+			LOGGER.info("[{}] stayed within {} mspt up to {} blocks, the largest size tested", scenario, budgetMspt, size);
+		}
+	}
+
+	private static long allocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean) {
+			return threadMXBean.getCurrentThreadAllocatedBytes();
+		}
+		return 0;
+	}
+
+	/**
+	 * The transfers of a single scenario run, for throughput reporting.
+	 */
+	public static class Counters {
+		private long transferredAmount = 0;
+		private long transferCount = 0;
+
+		/**
+		 * Record a transfer. Transfers that moved nothing are ignored.
+		 */
+		public void onTransfer(long moved) {
+			if (moved > 0) {
+				transferredAmount += moved;
+				transferCount++;
+			}
+		}
+	}
+
+}
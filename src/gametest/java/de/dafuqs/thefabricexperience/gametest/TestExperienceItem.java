@@ -0,0 +1,35 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.minecraft.item.*;
+
+public class TestExperienceItem extends Item implements SimpleExperienceStorageItem {
+
+	private final FillMode fillMode;
+
+	public TestExperienceItem(Settings settings, FillMode fillMode) {
+		super(settings);
+		this.fillMode = fillMode;
+	}
+
+	@Override
+	public long getExperienceCapacity(ItemStack stack) {
+		return 1_000;
+	}
+
+	@Override
+	public long getMaxExperienceInput(ItemStack stack) {
+		return 100;
+	}
+
+	@Override
+	public long getMaxExperienceOutput(ItemStack stack) {
+		return 100;
+	}
+
+	@Override
+	public FillMode getFillMode(ItemStack stack) {
+		return fillMode;
+	}
+
+}
@@ -0,0 +1,30 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import net.minecraft.block.*;
+import net.minecraft.block.entity.*;
+import net.minecraft.util.math.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+
+public class TestTankBlock extends BlockWithEntity {
+
+	public TestTankBlock(Settings settings) {
+		super(settings);
+	}
+
+	@Override
+	public BlockEntity createBlockEntity(BlockPos pos, BlockState state) {
+		return new TestTankBlockEntity(pos, state);
+	}
+
+	@Override
+	public BlockRenderType getRenderType(BlockState state) {
+		return BlockRenderType.MODEL;
+	}
+
+	@Override
+	public @Nullable <T extends BlockEntity> BlockEntityTicker<T> getTicker(World world, BlockState state, BlockEntityType<T> type) {
+		return world.isClient ? null : checkType(type, TheFabricExperienceGameTest.TANK_BLOCK_ENTITY, TestTankBlockEntity::tick);
+	}
+
+}
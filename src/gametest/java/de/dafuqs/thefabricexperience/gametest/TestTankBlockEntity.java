@@ -0,0 +1,67 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.minecraft.block.*;
+import net.minecraft.block.entity.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.math.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * A tank that pushes part of its experience to all of its neighbors every tick.
+ */
+public class TestTankBlockEntity extends BlockEntity {
+
+	public static final long CAPACITY = 10_000;
+	public static final long TRANSFER_RATE = 100;
+
+	public final SimpleSidedExperienceContainer container = new SimpleSidedExperienceContainer() {
+		@Override
+		public long getCapacity() {
+			return CAPACITY;
+		}
+
+		@Override
+		public long getMaxInsert(@Nullable Direction side) {
+			return TRANSFER_RATE;
+		}
+
+		@Override
+		public long getMaxExtract(@Nullable Direction side) {
+			return TRANSFER_RATE;
+		}
+
+		@Override
+		protected void onFinalCommit() {
+			markDirty();
+		}
+	};
+
+	@Nullable ExperienceNeighborCache neighbors;
+	/**
+	 * Where the pushes of this tank are counted, set by the load scenario that placed it.
+	 */
+	@Nullable LoadReport.Counters counters;
+
+	public TestTankBlockEntity(BlockPos pos, BlockState state) {
+		super(TheFabricExperienceGameTest.TANK_BLOCK_ENTITY, pos, state);
+	}
+
+	public static void tick(World world, BlockPos pos, BlockState state, TestTankBlockEntity tank) {
+		if (tank.container.amount == 0) {
+			return;
+		}
+
+		if (tank.neighbors == null) {
+			tank.neighbors = ExperienceNeighborCache.create((ServerWorld) world, pos);
+		}
+
+		long moved = tank.neighbors.pushToNeighbors(tank.container.getSideStorage(null), TRANSFER_RATE, ExperienceTransferStrategy.ROUND_ROBIN, null);
+		if (tank.counters != null) {
+			tank.counters.onTransfer(moved);
+		}
+	}
+
+}
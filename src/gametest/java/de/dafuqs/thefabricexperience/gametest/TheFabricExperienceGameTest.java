@@ -0,0 +1,36 @@
+package de.dafuqs.thefabricexperience.gametest;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import net.fabricmc.api.*;
+import net.fabricmc.fabric.api.object.builder.v1.block.*;
+import net.fabricmc.fabric.api.object.builder.v1.block.entity.*;
+import net.minecraft.block.*;
+import net.minecraft.block.entity.*;
+import net.minecraft.item.*;
+import net.minecraft.util.*;
+import net.minecraft.util.registry.*;
+
+/**
+ * Registers the blocks and items used by the game tests.
+ */
+public class TheFabricExperienceGameTest implements ModInitializer {
+
+	public static final String MOD_ID = "thefabricexperience-gametest";
+
+	public static final Block TANK = new TestTankBlock(FabricBlockSettings.copyOf(Blocks.IRON_BLOCK));
+	public static final BlockEntityType<TestTankBlockEntity> TANK_BLOCK_ENTITY = FabricBlockEntityTypeBuilder.create(TestTankBlockEntity::new, TANK).build();
+	public static final Item EXPERIENCE_TOME = new TestExperienceItem(new Item.Settings().maxCount(16), SimpleExperienceStorageItem.FillMode.EVEN);
+	public static final Item SEQUENTIAL_EXPERIENCE_TOME = new TestExperienceItem(new Item.Settings().maxCount(16), SimpleExperienceStorageItem.FillMode.SEQUENTIAL);
+
+	@Override
+	public void onInitialize() {
+		Registry.register(Registry.BLOCK, new Identifier(MOD_ID, "tank"), TANK);
+		Registry.register(Registry.BLOCK_ENTITY_TYPE, new Identifier(MOD_ID, "tank"), TANK_BLOCK_ENTITY);
+		Registry.register(Registry.ITEM, new Identifier(MOD_ID, "experience_tome"), EXPERIENCE_TOME);
+		Registry.register(Registry.ITEM, new Identifier(MOD_ID, "sequential_experience_tome"), SEQUENTIAL_EXPERIENCE_TOME);
+
+		ExperienceStorage.SIDED.registerForBlockEntity((tank, direction) -> tank.container.getSideStorage(direction), TANK_BLOCK_ENTITY);
+	}
+
+}
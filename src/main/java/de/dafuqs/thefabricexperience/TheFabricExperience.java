@@ -1,11 +1,26 @@
 package de.dafuqs.thefabricexperience;
 
+import de.dafuqs.thefabricexperience.api.channel.*;
 import de.dafuqs.thefabricexperience.api.fluid.*;
+import de.dafuqs.thefabricexperience.api.network.*;
 import de.dafuqs.thefabricexperience.api.storage.*;
 import de.dafuqs.thefabricexperience.api.storage.base.*;
+import de.dafuqs.thefabricexperience.api.sync.*;
+import de.dafuqs.thefabricexperience.impl.config.*;
+import de.dafuqs.thefabricexperience.impl.fluid.*;
+import de.dafuqs.thefabricexperience.impl.metrics.*;
+import de.dafuqs.thefabricexperience.impl.storage.*;
 import net.fabricmc.api.*;
+import net.fabricmc.fabric.api.command.v2.*;
+import net.fabricmc.fabric.api.event.lifecycle.v1.*;
+import net.fabricmc.fabric.api.networking.v1.*;
 import net.fabricmc.fabric.api.transfer.v1.fluid.*;
+import net.fabricmc.fabric.api.transfer.v1.fluid.base.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
 import net.minecraft.block.*;
+import net.minecraft.entity.*;
+import net.minecraft.entity.vehicle.*;
 import net.minecraft.fluid.*;
 import net.minecraft.item.*;
 import net.minecraft.util.*;
@@ -23,12 +38,55 @@ public class TheFabricExperience implements ModInitializer {
 		registerBlock("liquid_xp", LiquidXP.LIQUID_XP_FLUID_BLOCK);
 		registerItem("liquid_xp_bucket", LiquidXP.LIQUID_XP_BUCKET);
 		
-		ExperienceStorage.ITEM.registerForItems((stack, ctx) -> new SimpleExperienceStorage(FluidConstants.BOTTLE, 0, Integer.MAX_VALUE), Items.EXPERIENCE_BOTTLE);
-		ExperienceStorage.ITEM.registerForItems((stack, ctx) -> new SimpleExperienceStorage(FluidConstants.BUCKET, 0, Integer.MAX_VALUE), LiquidXP.LIQUID_XP_BUCKET);
+		// Bottles o' Enchanting and glass bottles as liquid xp containers.
+		// liquid_xp_bucket and empty buckets are already handled by Fabric through LiquidXPFluid#getBucketItem
+		FluidStorage.combinedItemApiProvider(Items.EXPERIENCE_BOTTLE).register(ctx -> new FullItemFluidStorage(ctx, Items.GLASS_BOTTLE, FluidVariant.of(LiquidXP.LIQUID_XP), FluidConstants.BOTTLE));
+		FluidStorage.combinedItemApiProvider(Items.GLASS_BOTTLE).register(ctx -> new EmptyItemFluidStorage(ctx, Items.EXPERIENCE_BOTTLE, LiquidXP.LIQUID_XP, FluidConstants.BOTTLE));
 		
-		// TODO: register Items.EXPERIENCE_BOTTLE as a provider for xp fluid
-		// TODO: register Empty Bottle as a target for xp fluid
-		// TODO: register liquid_xp_bucket as a provider for xp fluid (if fabric does not take care of that already)
+		// Filled ones also hold experience, through their fluid storage.
+		// Empty glass bottles are left out on purpose: as experience storages, every chargeInventory or inventory storage
+		// would quietly turn the player's empty bottles into Bottles o' Enchanting. They can still be filled as fluid containers.
+		ExperienceStorage.ITEM.registerForItems((stack, ctx) -> {
+			Storage<FluidVariant> fluidStorage = ctx.find(FluidStorage.ITEM);
+			return fluidStorage == null ? null : new FluidExperienceStorage(fluidStorage);
+		}, Items.EXPERIENCE_BOTTLE, LiquidXP.LIQUID_XP_BUCKET);
+		
+		// Blocks that only provide an experience storage can be piped from and to as liquid xp
+		FluidStorage.SIDED.registerFallback((world, pos, state, blockEntity, direction) -> {
+			ExperienceStorage experienceStorage = ExperienceStorage.SIDED.find(world, pos, state, blockEntity, direction);
+			// Experience storages that wrap a fluid storage already are one, and wrapping them again would only loop back
+			return experienceStorage == null || experienceStorage instanceof FluidExperienceStorage ? null : new ExperienceFluidStorage(experienceStorage);
+		});
+		
+		ExperienceStorage.ENTITY.registerForType((player, context) -> PlayerExperienceStorage.of(player), EntityType.PLAYER);
+		ExperienceStorage.ENTITY.registerForType((orb, context) -> OrbExperienceStorage.of(orb), EntityType.EXPERIENCE_ORB);
+		ExperienceStorage.ENTITY.registerForTypes((minecart, context) -> new InventoryExperienceStorage(InventoryStorage.of((StorageMinecartEntity) minecart, null)), EntityType.CHEST_MINECART, EntityType.HOPPER_MINECART);
+		
+		ServerTickEvents.START_WORLD_TICK.register(LiquidXPFlowBudget::onStartWorldTick);
+		ServerTickEvents.END_WORLD_TICK.register(ExperienceNetworkManager::onEndWorldTick);
+		ServerTickEvents.END_WORLD_TICK.register(ExperienceTransferPlanner::onEndWorldTick);
+		ServerTickEvents.END_WORLD_TICK.register(LiquidXPOrbAbsorber::onEndWorldTick);
+		ServerTickEvents.END_WORLD_TICK.register(ExperienceStorageSync::onEndWorldTick);
+		ServerTickEvents.END_SERVER_TICK.register(ExperienceMetrics::onEndServerTick);
+		ServerWorldEvents.UNLOAD.register((server, world) -> {
+			ExperienceNetworkManager.onWorldUnload(world);
+			ExperienceTransferPlanner.onWorldUnload(world);
+			LiquidXPOrbAbsorber.onWorldUnload(world);
+			LiquidXPFlowBudget.onWorldUnload(world);
+			ExperienceStorageSync.onWorldUnload(world);
+		});
+		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> ExperienceStorageSync.onPlayerDisconnect(handler.player.getUuid()));
+		
+		// The settings are only used by servers, dedicated or integrated
+		ServerLifecycleEvents.SERVER_STARTING.register(server -> {
+			TheFabricExperienceConfig.load();
+			LiquidXPFlowBudget.onConfigLoaded();
+			ExperienceMetrics.setEnabled(TheFabricExperienceConfig.getBoolean(TheFabricExperienceConfig.METRICS_ENABLED));
+		});
+		ServerLifecycleEvents.SERVER_STARTED.register(ExperienceChannels::onServerStarted);
+		ServerLifecycleEvents.SERVER_STOPPED.register(ExperienceChannels::onServerStopped);
+		
+		CommandRegistrationCallback.EVENT.register(ExperienceStatsCommand::register);
 	}
 	
 	private static void registerFluid(String name, Fluid fluid) {
@@ -1,9 +1,12 @@
 package de.dafuqs.thefabricexperience;
 
 import de.dafuqs.thefabricexperience.api.fluid.*;
+import de.dafuqs.thefabricexperience.api.sync.*;
+import de.dafuqs.thefabricexperience.impl.client.*;
 import de.dafuqs.thefabricexperience.impl.fluid.*;
 import net.fabricmc.api.*;
 import net.fabricmc.fabric.api.blockrenderlayer.v1.*;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.*;
 import net.fabricmc.fabric.api.client.render.fluid.v1.*;
 import net.fabricmc.fabric.api.event.client.*;
 import net.fabricmc.fabric.api.resource.*;
@@ -27,6 +30,27 @@ public class TheFabricExperienceClient implements ClientModInitializer {
 		setupFluidRendering(LiquidXP.LIQUID_XP, LiquidXP.FLOWING_LIQUID_XP, "liquid_xp", 0xFFFFFF);
 		
 		BlockRenderLayerMap.INSTANCE.putFluids(RenderLayer.getTranslucent(), LiquidXP.LIQUID_XP, LiquidXP.FLOWING_LIQUID_XP);
+		
+		setupOverlayRendering();
+		
+		ExperienceStorageSyncClient.register();
+	}
+	
+	private static void setupOverlayRendering() {
+		ClientTickEvents.END_CLIENT_TICK.register(LiquidXPOverlay::onEndClientTick);
+		
+		final Identifier listenerId = new Identifier(TheFabricExperience.MOD_ID, "liquid_xp_overlay_reload_listener");
+		ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+			@Override
+			public void reload(ResourceManager manager) {
+				LiquidXPOverlay.onResourceReload();
+			}
+			
+			@Override
+			public Identifier getFabricId() {
+				return listenerId;
+			}
+		});
 	}
 	
 	private static void setupFluidRendering(final Fluid still, final Fluid flowing, final String textureFluidId, final int color) {
@@ -0,0 +1,307 @@
+package de.dafuqs.thefabricexperience.api.channel;
+
+import de.dafuqs.thefabricexperience.*;
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import de.dafuqs.thefabricexperience.impl.channel.*;
+import it.unimi.dsi.fastutil.objects.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.server.*;
+import net.minecraft.util.*;
+import org.jetbrains.annotations.*;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Global experience channels: named pools of experience that are shared by everything on the server, across dimensions.
+ * Typical users are "ender tanks" that all access the same pool, keyed by an {@link Identifier} or the {@link UUID} of a player.
+ *
+ * <p>Channels are exposed as {@link ExperienceStorage}s through {@link #getStorage}, with full transaction support.
+ * Amounts are kept in primitive maps and saved with the world. The channels are split into {@link #SHARD_COUNT} shards by their key,
+ * and only shards with changed channels are written on a world save, from the IO worker.
+ * All shards start being read in parallel on the IO worker when the server starts,
+ * and the server thread only waits for a shard when one of its channels is first accessed.
+ *
+ * <p>Channels only take part in transactions while they are modified. Empty channels are forgotten once their transaction closes,
+ * so querying or emptying many different keys does not grow any state.
+ *
+ * <p>Only usable on the logical server thread.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public final class ExperienceChannels {
+	public static final int SHARD_COUNT = 64;
+	private static final String SHARD_NAME_PREFIX = TheFabricExperience.MOD_ID + "_channels_";
+	private static final Map<MinecraftServer, ExperienceChannels> CHANNELS = new HashMap<>();
+
+	private final MinecraftServer server;
+	private final CompletableFuture<ExperienceChannelShard>[] loadingShards;
+	private final ExperienceChannelShard[] shards = new ExperienceChannelShard[SHARD_COUNT];
+	private final Object2ObjectOpenHashMap<String, Channel> channels = new Object2ObjectOpenHashMap<>();
+
+	private ExperienceChannels(MinecraftServer server, CompletableFuture<ExperienceChannelShard>[] loadingShards) {
+		this.server = server;
+		this.loadingShards = loadingShards;
+	}
+
+	/**
+	 * @return The channels of the passed server.
+	 */
+	public static ExperienceChannels get(MinecraftServer server) {
+		ExperienceChannels channels = CHANNELS.get(server);
+		if (channels == null) {
+			channels = load(server);
+			CHANNELS.put(server, channels);
+		}
+		return channels;
+	}
+
+	/**
+	 * @param id The key of the channel.
+	 * @param capacity The capacity of the channel, as seen through the returned storage.
+	 *                 Views with different capacities may exist for the same channel.
+	 * @return A storage for the channel.
+	 */
+	public ExperienceStorage getStorage(Identifier id, long capacity) {
+		return getStorage(id.toString(), capacity);
+	}
+
+	/**
+	 * @see #getStorage(Identifier, long)
+	 */
+	public ExperienceStorage getStorage(UUID id, long capacity) {
+		return getStorage(id.toString(), capacity);
+	}
+
+	/**
+	 * @return The committed amount of experience in the channel.
+	 */
+	public long getAmount(Identifier id) {
+		return getAmount(id.toString());
+	}
+
+	/**
+	 * @see #getAmount(Identifier)
+	 */
+	public long getAmount(UUID id) {
+		return getAmount(id.toString());
+	}
+
+	/**
+	 * @return The number of channels that currently hold experience. Waits for all shards to be read.
+	 */
+	public int getChannelCount() {
+		int count = 0;
+		for (int i = 0; i < SHARD_COUNT; i++) {
+			count += getShard(i).amounts.size();
+		}
+		return count;
+	}
+
+	private ExperienceStorage getStorage(String key, long capacity) {
+		StoragePreconditions.notNegative(capacity);
+
+		return new ChannelStorage(key, getShardIndex(key), capacity);
+	}
+
+	private long getAmount(String key) {
+		return getShard(getShardIndex(key)).amounts.getLong(key);
+	}
+
+	/**
+	 * @return The channel participant of the passed key, created for the duration of a transaction.
+	 */
+	private Channel getChannel(String key, int shardIndex) {
+		Channel channel = channels.get(key);
+		if (channel == null) {
+			channel = new Channel(key, getShard(shardIndex));
+			channels.put(key, channel);
+		}
+		return channel;
+	}
+
+	/**
+	 * @return The shard with the passed index, waiting for it to be read if this is the first access.
+	 * The persistent state manager of the overworld takes care of saving it once it was handed out.
+	 */
+	private ExperienceChannelShard getShard(int index) {
+		ExperienceChannelShard shard = shards[index];
+		if (shard == null) {
+			shard = loadingShards[index].join();
+			loadingShards[index] = null;
+			server.getOverworld().getPersistentStateManager().set(getShardName(index), shard);
+			shards[index] = shard;
+		}
+		return shard;
+	}
+
+	private static int getShardIndex(String key) {
+		return Math.floorMod(key.hashCode(), SHARD_COUNT);
+	}
+
+	private static String getShardName(int index) {
+		return SHARD_NAME_PREFIX + index;
+	}
+
+	/**
+	 * Start reading all shards in parallel on the IO worker, without waiting for them.
+	 */
+	private static ExperienceChannels load(MinecraftServer server) {
+		Path dataDirectory = server.getSavePath(WorldSavePath.ROOT).resolve("data");
+
+		@SuppressWarnings("unchecked")
+		CompletableFuture<ExperienceChannelShard>[] futures = new CompletableFuture[SHARD_COUNT];
+		for (int i = 0; i < SHARD_COUNT; i++) {
+			Path file = dataDirectory.resolve(getShardName(i) + ".dat");
+			futures[i] = CompletableFuture.supplyAsync(() -> ExperienceChannelShard.load(file), Util.getIoWorkerExecutor());
+		}
+		return new ExperienceChannels(server, futures);
+	}
+
+	@ApiStatus.Internal
+	public static void onServerStarted(MinecraftServer server) {
+		get(server);
+	}
+
+	@ApiStatus.Internal
+	public static void onServerStopped(MinecraftServer server) {
+		ExperienceChannels channels = CHANNELS.remove(server);
+		if (channels != null) {
+			// Shards that were never accessed were never changed, so there is nothing to wait for
+			for (ExperienceChannelShard shard : channels.shards) {
+				if (shard != null) {
+					shard.awaitWrites();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The transaction participant of a single channel. The amount itself lives in the map of its shard.
+	 * Forgotten once the outermost transaction closes and the channel is empty.
+	 */
+	private final class Channel extends LongSnapshotParticipant {
+		private final String key;
+		private final ExperienceChannelShard shard;
+
+		private Channel(String key, ExperienceChannelShard shard) {
+			this.key = key;
+			this.shard = shard;
+		}
+
+		private long getAmount() {
+			return shard.amounts.getLong(key);
+		}
+
+		private void setAmount(long amount) {
+			if (amount == 0) {
+				shard.amounts.removeLong(key);
+			} else {
+				shard.amounts.put(key, amount);
+			}
+		}
+
+		@Override
+		protected long createSnapshot() {
+			return getAmount();
+		}
+
+		@Override
+		protected void readSnapshot(long snapshot) {
+			setAmount(snapshot);
+		}
+
+		@Override
+		public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+			super.onClose(transaction, result);
+			if (result.wasAborted() && transaction.nestingDepth() == 0) {
+				evictIfEmpty();
+			}
+		}
+
+		@Override
+		protected void onFinalCommit() {
+			shard.markDirty();
+			evictIfEmpty();
+		}
+
+		private void evictIfEmpty() {
+			if (getAmount() == 0) {
+				channels.remove(key, this);
+			}
+		}
+	}
+
+	private final class ChannelStorage implements ExperienceStorage {
+		private final String key;
+		private final int shardIndex;
+		private final long capacity;
+
+		private ChannelStorage(String key, int shardIndex, long capacity) {
+			this.key = key;
+			this.shardIndex = shardIndex;
+			this.capacity = capacity;
+		}
+
+		@Override
+		public long insert(long maxAmount, TransactionContext transaction) {
+			StoragePreconditions.notNegative(maxAmount);
+
+			long inserted = simulateInsert(maxAmount, transaction);
+
+			if (inserted > 0) {
+				Channel channel = getChannel(key, shardIndex);
+				channel.updateSnapshots(transaction);
+				channel.setAmount(channel.getAmount() + inserted);
+			}
+
+			return inserted;
+		}
+
+		@Override
+		public long extract(long maxAmount, TransactionContext transaction) {
+			StoragePreconditions.notNegative(maxAmount);
+
+			long extracted = simulateExtract(maxAmount, transaction);
+
+			if (extracted > 0) {
+				Channel channel = getChannel(key, shardIndex);
+				channel.updateSnapshots(transaction);
+				channel.setAmount(channel.getAmount() - extracted);
+			}
+
+			return extracted;
+		}
+
+		@Override
+		public boolean hasExactSimulation() {
+			return true;
+		}
+
+		@Override
+		public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+			StoragePreconditions.notNegative(maxAmount);
+
+			return Math.max(0, Math.min(maxAmount, capacity - getAmount()));
+		}
+
+		@Override
+		public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+			StoragePreconditions.notNegative(maxAmount);
+
+			return Math.max(0, Math.min(maxAmount, getAmount()));
+		}
+
+		@Override
+		public long getAmount() {
+			return getShard(shardIndex).amounts.getLong(key);
+		}
+
+		@Override
+		public long getCapacity() {
+			return capacity;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package de.dafuqs.thefabricexperience.api.fluid;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.fluid.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.base.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+
+import java.util.*;
+
+/**
+ * Exposes an {@link ExperienceStorage} as a single slot fluid storage holding {@link LiquidXP#LIQUID_XP},
+ * converting with {@link LiquidXP#DROPLETS_FOR_ONE_XP}.
+ *
+ * <p>Only multiples of {@code DROPLETS_FOR_ONE_XP} are ever moved: any remainder of a requested amount is rejected,
+ * so that no fraction of an experience point is created or voided.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public class ExperienceFluidStorage implements SingleSlotStorage<FluidVariant> {
+	private static final FluidVariant LIQUID_XP_VARIANT = FluidVariant.of(LiquidXP.LIQUID_XP);
+
+	private final ExperienceStorage experienceStorage;
+
+	public ExperienceFluidStorage(ExperienceStorage experienceStorage) {
+		this.experienceStorage = Objects.requireNonNull(experienceStorage);
+	}
+
+	@Override
+	public boolean supportsInsertion() {
+		return experienceStorage.supportsInsertion();
+	}
+
+	@Override
+	public long insert(FluidVariant resource, long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notBlankNotNegative(resource, maxAmount);
+
+		if (!resource.equals(LIQUID_XP_VARIANT)) return 0;
+
+		long inserted = experienceStorage.insert(LiquidXP.dropletsToExperience(maxAmount), transaction);
+		return LiquidXP.experienceToDroplets(inserted);
+	}
+
+	@Override
+	public boolean supportsExtraction() {
+		return experienceStorage.supportsExtraction();
+	}
+
+	@Override
+	public long extract(FluidVariant resource, long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notBlankNotNegative(resource, maxAmount);
+
+		if (!resource.equals(LIQUID_XP_VARIANT)) return 0;
+
+		long extracted = experienceStorage.extract(LiquidXP.dropletsToExperience(maxAmount), transaction);
+		return LiquidXP.experienceToDroplets(extracted);
+	}
+
+	@Override
+	public boolean isResourceBlank() {
+		return experienceStorage.getAmount() == 0;
+	}
+
+	@Override
+	public FluidVariant getResource() {
+		return isResourceBlank() ? FluidVariant.blank() : LIQUID_XP_VARIANT;
+	}
+
+	@Override
+	public long getAmount() {
+		return LiquidXP.experienceToDroplets(experienceStorage.getAmount());
+	}
+
+	@Override
+	public long getCapacity() {
+		return LiquidXP.experienceToDroplets(experienceStorage.getCapacity());
+	}
+}
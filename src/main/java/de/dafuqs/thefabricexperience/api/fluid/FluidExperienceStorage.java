@@ -0,0 +1,119 @@
+package de.dafuqs.thefabricexperience.api.fluid;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.fluid.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+
+import java.util.*;
+
+/**
+ * Exposes the liquid xp in a fluid storage as an {@link ExperienceStorage},
+ * converting with {@link LiquidXP#DROPLETS_FOR_ONE_XP}.
+ *
+ * <p>Only whole experience points are ever moved: the accepted or available droplets are rounded down,
+ * and the fluid storage is then asked for exactly that amount in a single call, no matter how large the transfer is.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public class FluidExperienceStorage implements ExperienceStorage {
+	private static final FluidVariant LIQUID_XP_VARIANT = FluidVariant.of(LiquidXP.LIQUID_XP);
+
+	private final Storage<FluidVariant> fluidStorage;
+
+	public FluidExperienceStorage(Storage<FluidVariant> fluidStorage) {
+		this.fluidStorage = Objects.requireNonNull(fluidStorage);
+	}
+
+	@Override
+	public boolean supportsInsertion() {
+		return fluidStorage.supportsInsertion();
+	}
+
+	@Override
+	public long insert(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		long maxDroplets = LiquidXP.experienceToDroplets(maxAmount);
+		if (maxDroplets == 0) return 0;
+
+		// Find out how many whole points the fluid storage accepts...
+		long acceptedDroplets;
+		try (Transaction simulation = transaction.openNested()) {
+			acceptedDroplets = fluidStorage.insert(LIQUID_XP_VARIANT, maxDroplets, simulation);
+		}
+
+		// ...and insert exactly that.
+		long inserted = Math.min(maxAmount, LiquidXP.dropletsToExperience(acceptedDroplets));
+		if (inserted == 0) return 0;
+
+		long droplets = LiquidXP.experienceToDroplets(inserted);
+		try (Transaction nested = transaction.openNested()) {
+			if (fluidStorage.insert(LIQUID_XP_VARIANT, droplets, nested) == droplets) {
+				nested.commit();
+				return inserted;
+			}
+		}
+
+		return 0;
+	}
+
+	@Override
+	public boolean supportsExtraction() {
+		return fluidStorage.supportsExtraction();
+	}
+
+	@Override
+	public long extract(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		long maxDroplets = LiquidXP.experienceToDroplets(maxAmount);
+		if (maxDroplets == 0) return 0;
+
+		// Find out how many whole points the fluid storage can provide...
+		long availableDroplets;
+		try (Transaction simulation = transaction.openNested()) {
+			availableDroplets = fluidStorage.extract(LIQUID_XP_VARIANT, maxDroplets, simulation);
+		}
+
+		// ...and extract exactly that.
+		long extracted = Math.min(maxAmount, LiquidXP.dropletsToExperience(availableDroplets));
+		if (extracted == 0) return 0;
+
+		long droplets = LiquidXP.experienceToDroplets(extracted);
+		try (Transaction nested = transaction.openNested()) {
+			if (fluidStorage.extract(LIQUID_XP_VARIANT, droplets, nested) == droplets) {
+				nested.commit();
+				return extracted;
+			}
+		}
+
+		return 0;
+	}
+
+	@Override
+	public long getAmount() {
+		long droplets = 0;
+		for (StorageView<FluidVariant> view : fluidStorage) {
+			if (view.getResource().equals(LIQUID_XP_VARIANT)) {
+				droplets = saturatedAdd(droplets, view.getAmount());
+			}
+		}
+		return LiquidXP.dropletsToExperience(droplets);
+	}
+
+	@Override
+	public long getCapacity() {
+		long droplets = 0;
+		for (StorageView<FluidVariant> view : fluidStorage) {
+			if (view.isResourceBlank() || view.getResource().equals(LIQUID_XP_VARIANT)) {
+				droplets = saturatedAdd(droplets, view.getCapacity());
+			}
+		}
+		return LiquidXP.dropletsToExperience(droplets);
+	}
+
+	private static long saturatedAdd(long a, long b) {
+		long sum = a + b;
+		return sum < 0 ? Long.MAX_VALUE : sum;
+	}
+}
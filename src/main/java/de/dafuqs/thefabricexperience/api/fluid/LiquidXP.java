@@ -37,6 +37,20 @@ public class LiquidXP {
 	 */
 	public static final long DROPLETS_FOR_ONE_XP =  4500;
 	
+	/**
+	 * @return The amount of liquid xp droplets equivalent to the passed experience, saturating at {@code Long.MAX_VALUE}
+	 */
+	public static long experienceToDroplets(long experience) {
+		return experience > Long.MAX_VALUE / DROPLETS_FOR_ONE_XP ? Long.MAX_VALUE : experience * DROPLETS_FOR_ONE_XP;
+	}
+	
+	/**
+	 * @return The amount of experience equivalent to the passed liquid xp droplets, rounded down
+	 */
+	public static long dropletsToExperience(long droplets) {
+		return droplets / DROPLETS_FOR_ONE_XP;
+	}
+	
 	private static TagKey<Fluid> tagKeyOf(String id) {
 		return TagKey.of(Registry.FLUID_KEY, new Identifier(TheFabricExperience.MOD_ID + ":" + id));
 	}
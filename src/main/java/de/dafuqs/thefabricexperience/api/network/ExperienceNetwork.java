@@ -0,0 +1,322 @@
+package de.dafuqs.thefabricexperience.api.network;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import de.dafuqs.thefabricexperience.impl.metrics.*;
+import it.unimi.dsi.fastutil.longs.*;
+import net.fabricmc.fabric.api.lookup.v1.block.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+import java.math.*;
+import java.util.*;
+
+/**
+ * A set of connected conductors, managed by an {@link ExperienceNetworkManager}.
+ *
+ * <p>All conductors of a network share a single buffer, exposed through {@link #getStorage}.
+ * Sources push experience into that storage (usually by returning it from the {@link ExperienceStorage#SIDED} provider of the conductor block),
+ * and once per tick the whole buffer is distributed to the endpoints of the network in a single pass.
+ * Endpoints are all non-conductor neighbors of the conductors that provide an {@code ExperienceStorage} accepting insertion.
+ *
+ * <p>Since the system is push based, the shared storage only supports insertion.
+ * The buffer is persisted by the conductors, as described in {@link ExperienceNetworkManager}.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public final class ExperienceNetwork {
+	final ServerWorld world;
+	final LongOpenHashSet conductors = new LongOpenHashSet();
+	final NetworkBuffer buffer = new NetworkBuffer();
+	long capacity = 0;
+
+	private final List<Endpoint> endpoints = new ArrayList<>();
+	private final List<ExperienceStorage> endpointStorages = new ArrayList<>();
+	private final List<BlockPos> endpointPositions = new ArrayList<>();
+	private boolean endpointsDirty = true;
+
+	// The shares of the conductors are cached, and recomputed when the amount or the topology changes
+	private long sharesAmount = -1;
+	private long sharesAnchor;
+	private long sharesRemainder;
+
+	ExperienceNetwork(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * @return The insert-only storage shared by all conductors of this network.
+	 */
+	public ExperienceStorage getStorage() {
+		return buffer.insertView;
+	}
+
+	/**
+	 * @return The number of conductors in this network.
+	 */
+	public int getConductorCount() {
+		return conductors.size();
+	}
+
+	/**
+	 * @return The amount of experience currently buffered in this network.
+	 */
+	public long getAmount() {
+		return buffer.amount;
+	}
+
+	/**
+	 * @return The sum of the capacities of all conductors.
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return The number of endpoints this network currently pushes to.
+	 */
+	public int getEndpointCount() {
+		refreshEndpoints();
+		return endpoints.size();
+	}
+
+	/**
+	 * @return true if the conductor at the passed position is part of this network.
+	 */
+	public boolean contains(BlockPos pos) {
+		return conductors.contains(pos.asLong());
+	}
+
+	void invalidateShares() {
+		sharesAmount = -1;
+	}
+
+	/**
+	 * The share of the buffer of a conductor is proportional to its capacity, rounded down.
+	 * The conductor with the lowest position (the anchor) also holds what the rounding leaves over, so the shares always add up to the buffer.
+	 */
+	long getShare(long conductor, Long2LongMap conductorCapacities) {
+		if (sharesAmount != buffer.amount) {
+			long anchor = Long.MAX_VALUE;
+			long sum = 0;
+			LongIterator iterator = conductors.iterator();
+			while (iterator.hasNext()) {
+				long other = iterator.nextLong();
+				anchor = Math.min(anchor, other);
+				sum += proportionalShare(buffer.amount, conductorCapacities.get(other), capacity);
+			}
+			sharesAnchor = anchor;
+			sharesRemainder = buffer.amount - sum;
+			sharesAmount = buffer.amount;
+		}
+
+		long share = proportionalShare(buffer.amount, conductorCapacities.get(conductor), capacity);
+		return conductor == sharesAnchor ? share + sharesRemainder : share;
+	}
+
+	/**
+	 * @return {@code floor(amount * part / total)}, without overflowing. 0 if the total is 0.
+	 */
+	static long proportionalShare(long amount, long part, long total) {
+		if (total <= 0 || part <= 0) {
+			return 0;
+		}
+		long high = Math.multiplyHigh(amount, part);
+		if (high == 0 && amount * part >= 0) {
+			return amount * part / total;
+		}
+		return BigInteger.valueOf(amount).multiply(BigInteger.valueOf(part)).divide(BigInteger.valueOf(total)).longValue();
+	}
+
+	void markEndpointsDirty() {
+		endpointsDirty = true;
+	}
+
+	/**
+	 * Distribute the buffer to all endpoints, in a single transaction.
+	 */
+	void tick() {
+		if (buffer.amount == 0) {
+			return;
+		}
+
+		refreshEndpoints();
+		if (endpoints.isEmpty()) {
+			return;
+		}
+
+		endpointStorages.clear();
+		endpointPositions.clear();
+		for (Endpoint endpoint : endpoints) {
+			ExperienceStorage storage = endpoint.cache.find(endpoint.side);
+			if (storage != null) {
+				endpointStorages.add(storage);
+				endpointPositions.add(endpoint.cache.getPos());
+			}
+		}
+
+		if (!ExperienceMetrics.isEnabled()) {
+			ExperienceStorageUtil.distribute(buffer.routingView, endpointStorages, buffer.amount, ExperienceTransferStrategy.ROUND_ROBIN, null);
+			return;
+		}
+
+		// Attribute what each endpoint received to its position. Only costs the extra reads while metrics are collected
+		long[] amountsBefore = new long[endpointStorages.size()];
+		for (int i = 0; i < amountsBefore.length; i++) {
+			amountsBefore[i] = endpointStorages.get(i).getAmount();
+		}
+		ExperienceStorageUtil.distribute(buffer.routingView, endpointStorages, buffer.amount, ExperienceTransferStrategy.ROUND_ROBIN, null);
+		for (int i = 0; i < amountsBefore.length; i++) {
+			ExperienceMetrics.onBlockTransfer(world, endpointPositions.get(i), endpointStorages.get(i).getAmount() - amountsBefore[i]);
+		}
+	}
+
+	/**
+	 * Rescan the neighbors of all conductors. Only happens after the topology or a neighbor changed.
+	 */
+	private void refreshEndpoints() {
+		if (!endpointsDirty) {
+			return;
+		}
+		endpointsDirty = false;
+		endpoints.clear();
+
+		BlockPos.Mutable neighborPos = new BlockPos.Mutable();
+		LongIterator iterator = conductors.iterator();
+		while (iterator.hasNext()) {
+			long conductor = iterator.nextLong();
+			for (Direction direction : Direction.values()) {
+				neighborPos.set(conductor).move(direction);
+				if (conductors.contains(neighborPos.asLong())) {
+					continue;
+				}
+
+				Direction side = direction.getOpposite();
+				ExperienceStorage storage = ExperienceStorage.SIDED.find(world, neighborPos, side);
+				if (storage != null && storage != buffer.insertView && storage.supportsInsertion()) {
+					endpoints.add(new Endpoint(BlockApiCache.create(ExperienceStorage.SIDED, world, neighborPos.toImmutable()), side));
+				}
+			}
+		}
+	}
+
+	private record Endpoint(BlockApiCache<ExperienceStorage, Direction> cache, Direction side) {
+	}
+
+	/**
+	 * The shared buffer, with an insert-only view for sources and an extract-only view for routing.
+	 */
+	final class NetworkBuffer extends LongSnapshotParticipant {
+		long amount = 0;
+
+		final ExperienceStorage insertView = new ExperienceStorage() {
+			@Override
+			public long insert(long maxAmount, TransactionContext transaction) {
+				StoragePreconditions.notNegative(maxAmount);
+
+				long inserted = simulateInsert(maxAmount, transaction);
+				if (inserted > 0) {
+					updateSnapshots(transaction);
+					amount += inserted;
+				}
+				return inserted;
+			}
+
+			@Override
+			public boolean supportsExtraction() {
+				return false;
+			}
+
+			@Override
+			public long extract(long maxAmount, TransactionContext transaction) {
+				return 0;
+			}
+
+			@Override
+			public boolean hasExactSimulation() {
+				return true;
+			}
+
+			@Override
+			public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+				return Math.max(0, Math.min(maxAmount, capacity - amount));
+			}
+
+			@Override
+			public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+				return 0;
+			}
+
+			@Override
+			public long getAmount() {
+				return amount;
+			}
+
+			@Override
+			public long getCapacity() {
+				return capacity;
+			}
+		};
+
+		final ExperienceStorage routingView = new ExperienceStorage() {
+			@Override
+			public boolean supportsInsertion() {
+				return false;
+			}
+
+			@Override
+			public long insert(long maxAmount, TransactionContext transaction) {
+				return 0;
+			}
+
+			@Override
+			public long extract(long maxAmount, TransactionContext transaction) {
+				StoragePreconditions.notNegative(maxAmount);
+
+				long extracted = simulateExtract(maxAmount, transaction);
+				if (extracted > 0) {
+					updateSnapshots(transaction);
+					amount -= extracted;
+				}
+				return extracted;
+			}
+
+			@Override
+			public boolean hasExactSimulation() {
+				return true;
+			}
+
+			@Override
+			public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+				return 0;
+			}
+
+			@Override
+			public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+				return Math.min(maxAmount, amount);
+			}
+
+			@Override
+			public long getAmount() {
+				return amount;
+			}
+
+			@Override
+			public long getCapacity() {
+				return capacity;
+			}
+		};
+
+		@Override
+		protected long createSnapshot() {
+			return amount;
+		}
+
+		@Override
+		protected void readSnapshot(long snapshot) {
+			amount = snapshot;
+		}
+	}
+}
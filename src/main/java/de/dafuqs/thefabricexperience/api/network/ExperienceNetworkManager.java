@@ -0,0 +1,303 @@
+package de.dafuqs.thefabricexperience.api.network;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Keeps track of all {@link ExperienceNetwork}s of a world.
+ *
+ * <p>Conductor blocks (cables, pipes, ...) register themselves with {@link #addConductor} when they are placed or loaded,
+ * and unregister with {@link #removeConductor} when they are broken or unloaded.
+ * A block entity would typically do that in {@code setWorld} and {@code markRemoved}.
+ * Networks are merged and split incrementally as conductors come and go.
+ *
+ * <p>Conductors should forward their {@code neighborUpdate} to {@link #onNeighborUpdate}, so that networks notice new or removed endpoints.
+ * All networks are ticked at the end of every world tick, which pushes their buffered experience to their endpoints.
+ *
+ * <p>The buffer of a network is persisted by its conductors: each conductor holds a share of it, proportional to its capacity.
+ * A conductor writes {@link #getStoredAmount} into its NBT, passes the read amount back to {@link #addConductor(BlockPos, long, long)} when it is loaded,
+ * and keeps the amount returned by {@link #removeConductor} when it is unloaded (or drops it, when it is broken).
+ * That way, saving, unloading and restarting the world never loses buffered experience.
+ * A network may temporarily hold more than its capacity after a conductor was removed. It refuses insertion until it pushed the excess to its endpoints.
+ *
+ * <p>Conductors cannot be added or removed while a transaction is open.
+ *
+ * <p>Only usable on the logical server thread.
+ */
+@SuppressWarnings("unused")
+public final class ExperienceNetworkManager {
+	private static final Map<ServerWorld, ExperienceNetworkManager> MANAGERS = new HashMap<>();
+
+	private final ServerWorld world;
+	private final Long2ObjectOpenHashMap<ExperienceNetwork> networksByPos = new Long2ObjectOpenHashMap<>();
+	private final Long2LongOpenHashMap conductorCapacities = new Long2LongOpenHashMap();
+	private final Set<ExperienceNetwork> networks = new LinkedHashSet<>();
+
+	private ExperienceNetworkManager(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * @return The network manager of the passed world.
+	 */
+	public static ExperienceNetworkManager get(ServerWorld world) {
+		return MANAGERS.computeIfAbsent(world, ExperienceNetworkManager::new);
+	}
+
+	/**
+	 * @return The network the conductor at the passed position belongs to, or null if there is no conductor.
+	 */
+	public @Nullable ExperienceNetwork getNetwork(BlockPos pos) {
+		return networksByPos.get(pos.asLong());
+	}
+
+	/**
+	 * @return All networks of this world.
+	 */
+	public Collection<ExperienceNetwork> getNetworks() {
+		return Collections.unmodifiableSet(networks);
+	}
+
+	/**
+	 * Register a conductor that does not hold any experience, merging all networks it connects.
+	 *
+	 * @see #addConductor(BlockPos, long, long)
+	 */
+	public ExperienceNetwork addConductor(BlockPos pos, long capacity) {
+		return addConductor(pos, capacity, 0);
+	}
+
+	/**
+	 * Register a conductor, merging all networks it connects.
+	 * Registering an existing conductor again only updates its capacity, and adds the passed amount.
+	 *
+	 * @param pos The position of the conductor.
+	 * @param capacity The amount of experience this conductor adds to the buffer of its network.
+	 * @param storedAmount The share of a network buffer this conductor persisted, see {@link #getStoredAmount}. Added to the buffer of the network.
+	 * @return The network the conductor is now part of.
+	 */
+	public ExperienceNetwork addConductor(BlockPos pos, long capacity, long storedAmount) {
+		StoragePreconditions.notNegative(capacity);
+		StoragePreconditions.notNegative(storedAmount);
+		checkNoTransaction();
+
+		long key = pos.asLong();
+
+		ExperienceNetwork existing = networksByPos.get(key);
+		if (existing != null) {
+			existing.capacity += capacity - conductorCapacities.put(key, capacity);
+			existing.buffer.amount += storedAmount;
+			existing.invalidateShares();
+			return existing;
+		}
+
+		// Collect the distinct networks of all neighboring conductors, keeping the largest one.
+		ExperienceNetwork largest = null;
+		List<ExperienceNetwork> adjacent = new ArrayList<>(6);
+		for (Direction direction : Direction.values()) {
+			ExperienceNetwork network = networksByPos.get(BlockPos.offset(key, direction));
+			if (network != null && !adjacent.contains(network)) {
+				adjacent.add(network);
+				if (largest == null || network.conductors.size() > largest.conductors.size()) {
+					largest = network;
+				}
+			}
+		}
+
+		if (largest == null) {
+			largest = new ExperienceNetwork(world);
+			networks.add(largest);
+		}
+
+		for (ExperienceNetwork network : adjacent) {
+			if (network != largest) {
+				merge(network, largest);
+			}
+		}
+
+		largest.conductors.add(key);
+		largest.capacity += capacity;
+		largest.buffer.amount += storedAmount;
+		largest.invalidateShares();
+		largest.markEndpointsDirty();
+		networksByPos.put(key, largest);
+		conductorCapacities.put(key, capacity);
+		return largest;
+	}
+
+	/**
+	 * @return The share of the buffer of its network the conductor at the passed position currently holds, or 0 if there is no conductor.
+	 * The shares of all conductors of a network always add up to its buffered amount.
+	 */
+	public long getStoredAmount(BlockPos pos) {
+		long key = pos.asLong();
+		ExperienceNetwork network = networksByPos.get(key);
+		return network == null ? 0 : network.getShare(key, conductorCapacities);
+	}
+
+	/**
+	 * Unregister a conductor, splitting its network if it was the only connection between some of its parts.
+	 * The conductor takes its {@link #getStoredAmount share} of the buffer with it, the rest is split between the parts
+	 * proportionally to their capacities.
+	 *
+	 * @return The amount of experience the conductor took out of the network. The last conductor of a network takes all of it.
+	 */
+	public long removeConductor(BlockPos pos) {
+		checkNoTransaction();
+		long key = pos.asLong();
+
+		ExperienceNetwork network = networksByPos.get(key);
+		if (network == null) {
+			return 0;
+		}
+
+		long share = network.getShare(key, conductorCapacities);
+		networksByPos.remove(key);
+		network.conductors.remove(key);
+		network.capacity -= conductorCapacities.remove(key);
+		network.buffer.amount -= share;
+		network.invalidateShares();
+		network.markEndpointsDirty();
+
+		if (network.conductors.isEmpty()) {
+			networks.remove(network);
+			return share;
+		}
+
+		LongArrayList neighbors = new LongArrayList(6);
+		for (Direction direction : Direction.values()) {
+			long neighbor = BlockPos.offset(key, direction);
+			if (network.conductors.contains(neighbor)) {
+				neighbors.add(neighbor);
+			}
+		}
+
+		if (neighbors.size() > 1) {
+			split(network, neighbors);
+		}
+		return share;
+	}
+
+	/**
+	 * Notify the network of the conductor at the passed position that one of its neighbors changed.
+	 */
+	public void onNeighborUpdate(BlockPos conductorPos) {
+		ExperienceNetwork network = networksByPos.get(conductorPos.asLong());
+		if (network != null) {
+			network.markEndpointsDirty();
+		}
+	}
+
+	private void tick() {
+		world.getProfiler().push("experience_networks");
+		for (ExperienceNetwork network : networks) {
+			network.tick();
+		}
+		world.getProfiler().pop();
+	}
+
+	private void merge(ExperienceNetwork from, ExperienceNetwork into) {
+		LongIterator iterator = from.conductors.iterator();
+		while (iterator.hasNext()) {
+			long conductor = iterator.nextLong();
+			into.conductors.add(conductor);
+			networksByPos.put(conductor, into);
+		}
+		into.capacity += from.capacity;
+		into.buffer.amount += from.buffer.amount;
+		into.invalidateShares();
+		into.markEndpointsDirty();
+		networks.remove(from);
+	}
+
+	/**
+	 * Flood fill from every former neighbor of a removed conductor.
+	 * The first component stays in the old network, every further one becomes a new network.
+	 */
+	private void split(ExperienceNetwork network, LongArrayList neighbors) {
+		LongOpenHashSet visited = new LongOpenHashSet(network.conductors.size());
+		List<LongOpenHashSet> components = new ArrayList<>();
+
+		for (int i = 0; i < neighbors.size(); i++) {
+			long start = neighbors.getLong(i);
+			if (visited.contains(start)) {
+				continue;
+			}
+
+			LongOpenHashSet component = new LongOpenHashSet();
+			LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+			queue.enqueue(start);
+			visited.add(start);
+			while (!queue.isEmpty()) {
+				long current = queue.dequeueLong();
+				component.add(current);
+				for (Direction direction : Direction.values()) {
+					long next = BlockPos.offset(current, direction);
+					if (network.conductors.contains(next) && visited.add(next)) {
+						queue.enqueue(next);
+					}
+				}
+			}
+			components.add(component);
+
+			if (component.size() == network.conductors.size()) {
+				// Everything is still connected
+				return;
+			}
+		}
+
+		// The first component stays in the old network, and keeps what is left over after the other components got their share
+		long totalCapacity = network.capacity;
+		long totalAmount = network.buffer.amount;
+		long remainingAmount = totalAmount;
+
+		for (int i = 1; i < components.size(); i++) {
+			LongOpenHashSet component = components.get(i);
+			ExperienceNetwork split = new ExperienceNetwork(world);
+
+			LongIterator iterator = component.iterator();
+			while (iterator.hasNext()) {
+				long conductor = iterator.nextLong();
+				network.conductors.remove(conductor);
+				split.conductors.add(conductor);
+				split.capacity += conductorCapacities.get(conductor);
+				networksByPos.put(conductor, split);
+			}
+
+			long share = ExperienceNetwork.proportionalShare(totalAmount, split.capacity, totalCapacity);
+			split.buffer.amount = share;
+			remainingAmount -= share;
+
+			network.capacity -= split.capacity;
+			networks.add(split);
+		}
+
+		network.buffer.amount = remainingAmount;
+		network.invalidateShares();
+	}
+
+	private static void checkNoTransaction() {
+		if (Transaction.isOpen()) {
+			throw new IllegalStateException("Conductors cannot be added or removed while a transaction is open");
+		}
+	}
+
+	@ApiStatus.Internal
+	public static void onEndWorldTick(ServerWorld world) {
+		ExperienceNetworkManager manager = MANAGERS.get(world);
+		if (manager != null) {
+			manager.tick();
+		}
+	}
+
+	@ApiStatus.Internal
+	public static void onWorldUnload(ServerWorld world) {
+		MANAGERS.remove(world);
+	}
+}
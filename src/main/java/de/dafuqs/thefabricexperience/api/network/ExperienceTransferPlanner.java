@@ -0,0 +1,267 @@
+package de.dafuqs.thefabricexperience.api.network;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import it.unimi.dsi.fastutil.ints.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.*;
+import org.jetbrains.annotations.*;
+import org.slf4j.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Plans the transfers between a large number of sources and sinks off the server thread.
+ *
+ * <p>Sources and sinks are registered with {@link #addSource} and {@link #addSink}, and stay registered until {@link Endpoint#remove} is called.
+ * At the end of every world tick, the planner snapshots how much each source can give and each sink can take,
+ * and computes a plan on a worker thread: as much experience as possible is moved, spread evenly over the sources and sinks,
+ * with at most one transfer per source and sink pair and no more than {@code sources + sinks - 1} transfers in total.
+ * At the end of the next tick, the plan is applied on the server thread in a single transaction.
+ *
+ * <p>Storages may change between the snapshot and the application of a plan. Every planned transfer goes through
+ * {@link ExperienceStorageUtil#move}, so it simply moves less if a source or sink changed in the meantime,
+ * and transfers from or to endpoints removed in the meantime are skipped. If the worker is still busy, the tick is skipped.
+ *
+ * <p>Only usable on the logical server thread.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public final class ExperienceTransferPlanner {
+	private static final Logger LOGGER = LoggerFactory.getLogger("TheFabricExperience Transfer Planner");
+	private static final Map<ServerWorld, ExperienceTransferPlanner> PLANNERS = new HashMap<>();
+
+	private final ServerWorld world;
+	private final List<Endpoint> sources = new ArrayList<>();
+	private final List<Endpoint> sinks = new ArrayList<>();
+	private @Nullable CompletableFuture<Plan> pendingPlan;
+
+	private ExperienceTransferPlanner(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * @return The transfer planner of the passed world.
+	 */
+	public static ExperienceTransferPlanner get(ServerWorld world) {
+		return PLANNERS.computeIfAbsent(world, ExperienceTransferPlanner::new);
+	}
+
+	/**
+	 * Register a storage that experience should be extracted from.
+	 */
+	public Endpoint addSource(ExperienceStorage storage) {
+		Endpoint endpoint = new Endpoint(this, storage, true);
+		sources.add(endpoint);
+		return endpoint;
+	}
+
+	/**
+	 * Register a storage that experience should be inserted into.
+	 */
+	public Endpoint addSink(ExperienceStorage storage) {
+		Endpoint endpoint = new Endpoint(this, storage, false);
+		sinks.add(endpoint);
+		return endpoint;
+	}
+
+	public int getSourceCount() {
+		return sources.size();
+	}
+
+	public int getSinkCount() {
+		return sinks.size();
+	}
+
+	private void tick() {
+		if (pendingPlan != null) {
+			if (!pendingPlan.isDone()) {
+				return;
+			}
+
+			Plan plan = null;
+			try {
+				plan = pendingPlan.join();
+			} catch (CompletionException e) {
+				LOGGER.error("Failed to plan experience transfers", e);
+			}
+			pendingPlan = null;
+
+			if (plan != null) {
+				world.getProfiler().push("experience_transfer_plan");
+				plan.apply();
+				world.getProfiler().pop();
+			}
+		}
+
+		if (!sources.isEmpty() && !sinks.isEmpty()) {
+			Snapshot snapshot = snapshot();
+			pendingPlan = CompletableFuture.supplyAsync(() -> computePlan(snapshot), Util.getMainWorkerExecutor());
+		}
+	}
+
+	private Snapshot snapshot() {
+		Endpoint[] sourceArray = sources.toArray(new Endpoint[0]);
+		Endpoint[] sinkArray = sinks.toArray(new Endpoint[0]);
+
+		long[] supply = new long[sourceArray.length];
+		for (int i = 0; i < sourceArray.length; i++) {
+			ExperienceStorage storage = sourceArray[i].storage;
+			supply[i] = storage.supportsExtraction() ? storage.simulateExtract(Long.MAX_VALUE, null) : 0;
+		}
+
+		long[] demand = new long[sinkArray.length];
+		for (int i = 0; i < sinkArray.length; i++) {
+			ExperienceStorage storage = sinkArray[i].storage;
+			demand[i] = storage.supportsInsertion() ? storage.simulateInsert(Long.MAX_VALUE, null) : 0;
+		}
+
+		return new Snapshot(sourceArray, supply, sinkArray, demand);
+	}
+
+	/**
+	 * Runs on a worker thread, and must only touch the snapshot.
+	 */
+	private static Plan computePlan(Snapshot snapshot) {
+		long total = Math.min(saturatedSum(snapshot.supply), saturatedSum(snapshot.demand));
+
+		long[] given = fairShares(snapshot.supply, total);
+		long[] taken = fairShares(snapshot.demand, total);
+
+		// Pair sources and sinks in order. Every step exhausts at least one of the two, so this emits at most sources + sinks - 1 transfers.
+		int maxTransfers = Math.max(0, snapshot.sources.length + snapshot.sinks.length - 1);
+		int[] from = new int[maxTransfers];
+		int[] to = new int[maxTransfers];
+		long[] amounts = new long[maxTransfers];
+		int count = 0;
+
+		int source = 0, sink = 0;
+		while (source < given.length && sink < taken.length) {
+			if (given[source] == 0) {
+				source++;
+			} else if (taken[sink] == 0) {
+				sink++;
+			} else {
+				long amount = Math.min(given[source], taken[sink]);
+				from[count] = source;
+				to[count] = sink;
+				amounts[count] = amount;
+				count++;
+				given[source] -= amount;
+				taken[sink] -= amount;
+			}
+		}
+
+		return new Plan(snapshot.sources, snapshot.sinks, from, to, amounts, count);
+	}
+
+	/**
+	 * Max-min fair split of {@code total} over storages with the passed limits:
+	 * the smallest limits are served first, the remainder is split evenly over everyone else.
+	 */
+	private static long[] fairShares(long[] limits, long total) {
+		int[] order = new int[limits.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		IntArrays.quickSort(order, (a, b) -> Long.compare(limits[a], limits[b]));
+
+		long[] shares = new long[limits.length];
+		long remaining = total;
+		for (int i = 0; i < order.length; i++) {
+			long share = Math.min(limits[order[i]], remaining / (order.length - i));
+			shares[order[i]] = share;
+			remaining -= share;
+		}
+
+		// Integer division can leave a remainder, hand it out to whoever still has room
+		for (int i = 0; i < order.length && remaining > 0; i++) {
+			long extra = Math.min(limits[i] - shares[i], remaining);
+			shares[i] += extra;
+			remaining -= extra;
+		}
+		return shares;
+	}
+
+	private static long saturatedSum(long[] values) {
+		long sum = 0;
+		for (long value : values) {
+			sum += value;
+			if (sum < 0) {
+				return Long.MAX_VALUE;
+			}
+		}
+		return sum;
+	}
+
+	@ApiStatus.Internal
+	public static void onEndWorldTick(ServerWorld world) {
+		ExperienceTransferPlanner planner = PLANNERS.get(world);
+		if (planner != null) {
+			planner.tick();
+		}
+	}
+
+	@ApiStatus.Internal
+	public static void onWorldUnload(ServerWorld world) {
+		PLANNERS.remove(world);
+	}
+
+	/**
+	 * A registered source or sink.
+	 */
+	public static final class Endpoint {
+		private final ExperienceTransferPlanner planner;
+		private final ExperienceStorage storage;
+		private final boolean source;
+		private boolean removed = false;
+
+		private Endpoint(ExperienceTransferPlanner planner, ExperienceStorage storage, boolean source) {
+			this.planner = planner;
+			this.storage = storage;
+			this.source = source;
+		}
+
+		public ExperienceStorage getStorage() {
+			return storage;
+		}
+
+		public boolean isSource() {
+			return source;
+		}
+
+		public boolean isRemoved() {
+			return removed;
+		}
+
+		/**
+		 * Unregister this endpoint. Already planned transfers from or to it are skipped.
+		 */
+		public void remove() {
+			if (!removed) {
+				removed = true;
+				(source ? planner.sources : planner.sinks).remove(this);
+			}
+		}
+	}
+
+	private record Snapshot(Endpoint[] sources, long[] supply, Endpoint[] sinks, long[] demand) {
+	}
+
+	private record Plan(Endpoint[] sources, Endpoint[] sinks, int[] from, int[] to, long[] amounts, int count) {
+
+		private void apply() {
+			try (Transaction transaction = Transaction.openOuter()) {
+				for (int i = 0; i < count; i++) {
+					Endpoint source = sources[from[i]];
+					Endpoint sink = sinks[to[i]];
+					if (!source.removed && !sink.removed) {
+						ExperienceStorageUtil.move(source.storage, sink.storage, amounts[i], transaction);
+					}
+				}
+				transaction.commit();
+			}
+		}
+
+	}
+}
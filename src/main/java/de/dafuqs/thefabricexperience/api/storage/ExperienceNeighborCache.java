@@ -0,0 +1,94 @@
+package de.dafuqs.thefabricexperience.api.storage;
+
+import de.dafuqs.thefabricexperience.impl.metrics.*;
+import net.fabricmc.fabric.api.lookup.v1.block.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Caches the {@link ExperienceStorage#SIDED} lookups of the six neighbors of a single block.
+ * Intended for machines that push experience to their neighbors every tick.
+ *
+ * <p>Each direction is backed by a {@link BlockApiCache}, which already takes care of block entity changes and chunk unloads.
+ * Like the {@link BlockApiCache} itself, this does not remember the storage instances:
+ * providers may return a different storage on every query, so every call asks the cache again.
+ *
+ * <p>Only usable on the logical server.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public final class ExperienceNeighborCache {
+	private final ServerWorld world;
+	private final BlockPos pos;
+	@SuppressWarnings("unchecked")
+	private final BlockApiCache<ExperienceStorage, Direction>[] caches = new BlockApiCache[6];
+	private final List<ExperienceStorage> neighbors = new ArrayList<>(6);
+
+	private ExperienceNeighborCache(ServerWorld world, BlockPos pos) {
+		this.world = Objects.requireNonNull(world);
+		this.pos = pos.toImmutable();
+	}
+
+	/**
+	 * Create a new cache for the neighbors of the block at the passed position.
+	 */
+	public static ExperienceNeighborCache create(ServerWorld world, BlockPos pos) {
+		return new ExperienceNeighborCache(world, pos);
+	}
+
+	public ServerWorld getWorld() {
+		return world;
+	}
+
+	public BlockPos getPos() {
+		return pos;
+	}
+
+	/**
+	 * Find the experience storage of the neighbor in the passed direction,
+	 * queried with the side of the neighbor that faces this block.
+	 *
+	 * @return The storage of the neighbor, or null if there is none.
+	 */
+	public @Nullable ExperienceStorage find(Direction direction) {
+		int index = direction.getId();
+
+		BlockApiCache<ExperienceStorage, Direction> cache = caches[index];
+		if (cache == null) {
+			cache = BlockApiCache.create(ExperienceStorage.SIDED, world, pos.offset(direction));
+			caches[index] = cache;
+		}
+		return cache.find(direction.getOpposite());
+	}
+
+	/**
+	 * Return the storages of all neighbors, in {@link Direction} order.
+	 * The returned list is reused by subsequent calls and should not be kept.
+	 */
+	public List<ExperienceStorage> findAll() {
+		neighbors.clear();
+		for (Direction direction : Direction.values()) {
+			ExperienceStorage storage = find(direction);
+			if (storage != null) {
+				neighbors.add(storage);
+			}
+		}
+		return neighbors;
+	}
+
+	/**
+	 * Push experience from the passed storage to all neighbors that accept it, in a single transaction.
+	 *
+	 * @see ExperienceStorageUtil#distribute(ExperienceStorage, List, long, ExperienceTransferStrategy, TransactionContext)
+	 */
+	public long pushToNeighbors(ExperienceStorage from, long maxAmount, ExperienceTransferStrategy strategy, @Nullable TransactionContext transaction) {
+		world.getProfiler().push("experience_push_to_neighbors");
+		long moved = ExperienceStorageUtil.distribute(from, findAll(), maxAmount, strategy, transaction);
+		ExperienceMetrics.onBlockTransfer(world, pos, moved);
+		world.getProfiler().pop();
+		return moved;
+	}
+}
@@ -3,6 +3,7 @@ package de.dafuqs.thefabricexperience.api.storage;
 import de.dafuqs.thefabricexperience.*;
 import de.dafuqs.thefabricexperience.impl.storage.*;
 import net.fabricmc.fabric.api.lookup.v1.block.*;
+import net.fabricmc.fabric.api.lookup.v1.entity.*;
 import net.fabricmc.fabric.api.lookup.v1.item.*;
 import net.fabricmc.fabric.api.transfer.v1.context.*;
 import net.fabricmc.fabric.api.transfer.v1.transaction.*;
@@ -35,6 +36,7 @@ public interface ExperienceStorage {
 	 *
 	 * <p>The system is push based. That means that experience sources are responsible for pushing experience to nearby machines.
 	 * Machines and wires should NOT pull experience from other sources.
+	 * Machines that push to their neighbors every tick can use an {@link ExperienceNeighborCache} instead of querying this lookup directly.
 	 *
 	 * <p>{@link de.dafuqs.thefabricexperience.api.storage.base.SimpleExperienceStorage} and {@link de.dafuqs.thefabricexperience.api.storage.base.SimpleSidedExperienceContainer} are provided as base implementations.
 	 *
@@ -63,6 +65,18 @@ public interface ExperienceStorage {
 	 */
 	ItemApiLookup<ExperienceStorage, ContainerItemContext> ITEM = ItemApiLookup.get(new Identifier(TheFabricExperience.MOD_ID, "sided_experience"), ExperienceStorage.class, ContainerItemContext.class);
 
+	/**
+	 * Entity access to experience storages.
+	 * Refer to {@link EntityApiLookup} for documentation on how to use this field.
+	 *
+	 * <p>Providers are registered for players ({@link PlayerExperienceStorage}), experience orbs (extract-only)
+	 * and storage minecarts (combining the experience storing items of their inventory).
+	 * {@link ExperienceStorageUtil#collectOrbs} drains all orbs in an area through this lookup.
+	 *
+	 * <p>Like {@link #SIDED}, contents of storages queried on the logical client are unreliable and should not be modified.
+	 */
+	EntityApiLookup<ExperienceStorage, @Nullable Void> ENTITY = EntityApiLookup.get(new Identifier(TheFabricExperience.MOD_ID, "entity_experience"), ExperienceStorage.class, Void.class);
+
 	/**
 	 * Always empty experience storage.
 	 */
@@ -106,6 +120,49 @@ public interface ExperienceStorage {
 	 */
 	long extract(long maxAmount, TransactionContext transaction);
 
+	/**
+	 * Return true if this storage can answer {@link #simulateInsert} and {@link #simulateExtract} exactly,
+	 * without opening a transaction and without any side effects.
+	 *
+	 * <p>Exact means that, as long as the storage is not modified in between,
+	 * inserting or extracting at most the simulated amount is guaranteed to move exactly the requested amount.
+	 * Transfer helpers like {@link ExperienceStorageUtil#move} use this to skip their throwaway simulation transactions
+	 * if both ends of a transfer are exact.
+	 *
+	 * <p>Return false in doubt, for example if an operation can partially fail or has side effects beyond changing the amount.
+	 */
+	default boolean hasExactSimulation() {
+		return false;
+	}
+
+	/**
+	 * Return the amount that {@link #insert} would currently accept, without modifying the storage.
+	 * The default implementation inserts in a nested transaction that is then aborted.
+	 *
+	 * @param maxAmount The maximum amount of experience to insert. May not be negative.
+	 * @param transaction The transaction the simulation is part of, or {@code null} if there is none.
+	 * @return A nonnegative integer not greater than maxAmount: the amount that would be inserted.
+	 */
+	default long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+		try (Transaction simulation = Transaction.openNested(transaction)) {
+			return insert(maxAmount, simulation);
+		}
+	}
+
+	/**
+	 * Return the amount that {@link #extract} would currently return, without modifying the storage.
+	 * The default implementation extracts in a nested transaction that is then aborted.
+	 *
+	 * @param maxAmount The maximum amount of experience to extract. May not be negative.
+	 * @param transaction The transaction the simulation is part of, or {@code null} if there is none.
+	 * @return A nonnegative integer not greater than maxAmount: the amount that would be extracted.
+	 */
+	default long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+		try (Transaction simulation = Transaction.openNested(transaction)) {
+			return extract(maxAmount, simulation);
+		}
+	}
+
 	/**
 	 * Return the current amount of experience that is stored.
 	 */
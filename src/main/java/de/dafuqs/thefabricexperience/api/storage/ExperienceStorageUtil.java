@@ -1,12 +1,29 @@
 package de.dafuqs.thefabricexperience.api.storage;
 
+import de.dafuqs.thefabricexperience.impl.jfr.ExperienceEvents;
+import de.dafuqs.thefabricexperience.impl.jfr.ExperienceTransferEvent;
+import de.dafuqs.thefabricexperience.impl.metrics.ExperienceMetrics;
+import de.dafuqs.thefabricexperience.impl.storage.InventoryExperienceStorage;
 import net.fabricmc.fabric.api.transfer.v1.context.ContainerItemContext;
+import net.fabricmc.fabric.api.transfer.v1.item.InventoryStorage;
+import net.fabricmc.fabric.api.transfer.v1.item.PlayerInventoryStorage;
 import net.fabricmc.fabric.api.transfer.v1.storage.StoragePreconditions;
 import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ExperienceOrbEntity;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Helper functions to work with {@link ExperienceStorage}s.
  */
@@ -23,10 +40,53 @@ public class ExperienceStorageUtil {
 	 * @return The amount of experience that was successfully moved.
 	 */
 	public static long move(@Nullable ExperienceStorage from, @Nullable ExperienceStorage to, long maxAmount, @Nullable TransactionContext transaction) {
+		ExperienceTransferEvent event = ExperienceEvents.beginTransfer();
+		long moved = moveUninstrumented(from, to, maxAmount, transaction);
+		if (event != null) {
+			ExperienceEvents.endTransfer(event, from, to, maxAmount, moved, transaction);
+		}
+		return moved;
+	}
+
+	/**
+	 * Move experience between the {@link ExperienceStorage#SIDED} storages of two blocks, and return the amount that was successfully moved.
+	 * Unlike {@link #move(ExperienceStorage, ExperienceStorage, long, TransactionContext)}, the transfer shows up in the profiler,
+	 * and both positions are counted in the {@code /xpstats} hot spots.
+	 *
+	 * @param world The world of both blocks.
+	 * @param fromPos The position of the source block.
+	 * @param fromSide The side of the source block to query, or null for its full storage.
+	 * @param toPos The position of the target block.
+	 * @param toSide The side of the target block to query, or null for its full storage.
+	 * @param maxAmount The maximum amount that may be moved.
+	 * @param transaction The transaction this transfer is part of,
+	 *                    or {@code null} if a transaction should be opened just for this transfer.
+	 * @return The amount of experience that was successfully moved.
+	 */
+	public static long move(World world, BlockPos fromPos, @Nullable Direction fromSide, BlockPos toPos, @Nullable Direction toSide, long maxAmount, @Nullable TransactionContext transaction) {
+		world.getProfiler().push("experience_move");
+		long moved = move(ExperienceStorage.SIDED.find(world, fromPos, fromSide), ExperienceStorage.SIDED.find(world, toPos, toSide), maxAmount, transaction);
+		ExperienceMetrics.onBlockTransfer(world, fromPos, moved);
+		ExperienceMetrics.onBlockTransfer(world, toPos, moved);
+		world.getProfiler().pop();
+		return moved;
+	}
+
+	private static long moveUninstrumented(@Nullable ExperienceStorage from, @Nullable ExperienceStorage to, long maxAmount, @Nullable TransactionContext transaction) {
 		if (from == null || to == null) return 0;
 
 		StoragePreconditions.notNegative(maxAmount);
 
+		if (from.hasExactSimulation() && to.hasExactSimulation()) {
+			long moved = moveExact(from, to, maxAmount, transaction);
+			if (moved >= 0) {
+				ExperienceMetrics.onTransfer(moved);
+				return moved;
+			}
+		}
+
+		ExperienceMetrics.onTransactionsOpened(2);
+
 		// Simulate extraction first.
 		long maxExtracted;
 
@@ -42,13 +102,322 @@ public class ExperienceStorageUtil {
 			if (from.extract(accepted, moveTransaction) == accepted) {
 				// Commit if the amounts match.
 				moveTransaction.commit();
+				ExperienceMetrics.onTransfer(accepted);
 				return accepted;
 			}
 		}
 
+		ExperienceMetrics.onTransfer(0);
 		return 0;
 	}
 
+	/**
+	 * Variant of {@link #move} for storages that both have {@link ExperienceStorage#hasExactSimulation exact simulation}.
+	 * The amount is computed up front, so no simulation transaction is needed.
+	 * The real operations still run in a nested transaction, which is only committed if both move exactly the simulated amount.
+	 *
+	 * @return The amount of experience that was moved, or -1 if a storage did not behave as simulated and nothing was moved.
+	 * Callers then fall back to the generic path.
+	 */
+	private static long moveExact(ExperienceStorage from, ExperienceStorage to, long maxAmount, @Nullable TransactionContext transaction) {
+		long accepted = to.simulateInsert(from.simulateExtract(maxAmount, transaction), transaction);
+		if (accepted == 0) return 0;
+
+		ExperienceMetrics.onTransactionsOpened(1);
+		try (Transaction moveTransaction = Transaction.openNested(transaction)) {
+			if (to.insert(accepted, moveTransaction) == accepted && from.extract(accepted, moveTransaction) == accepted) {
+				moveTransaction.commit();
+				return accepted;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Move experience from one source to multiple targets, and return the amount that was successfully moved.
+	 * Targets that do not support insertion are skipped. The whole batch is executed in a single transaction.
+	 *
+	 * @param from The source storage. May be null.
+	 * @param targets The target storages.
+	 * @param maxAmount The maximum amount that may be moved in total.
+	 * @param strategy How the experience is split between the targets.
+	 * @param transaction The transaction this transfer is part of,
+	 *                    or {@code null} if a transaction should be opened just for this transfer.
+	 * @return The amount of experience that was successfully moved.
+	 */
+	public static long distribute(@Nullable ExperienceStorage from, List<? extends ExperienceStorage> targets, long maxAmount, ExperienceTransferStrategy strategy, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+		if (from == null || !from.supportsExtraction() || maxAmount == 0) return 0;
+
+		List<ExperienceStorage> insertableTargets = filter(targets, true);
+		if (insertableTargets.isEmpty()) return 0;
+
+		ExperienceMetrics.onTransactionsOpened(1);
+		try (Transaction batchTransaction = Transaction.openNested(transaction)) {
+			long moved = distributeWithin(from, insertableTargets, maxAmount, strategy, batchTransaction);
+			batchTransaction.commit();
+			ExperienceMetrics.onTransfer(moved);
+			return moved;
+		}
+	}
+
+	/**
+	 * Array variant of {@link #distribute(ExperienceStorage, List, long, ExperienceTransferStrategy, TransactionContext)}.
+	 */
+	public static long distribute(@Nullable ExperienceStorage from, ExperienceStorage[] targets, long maxAmount, ExperienceTransferStrategy strategy, @Nullable TransactionContext transaction) {
+		return distribute(from, Arrays.asList(targets), maxAmount, strategy, transaction);
+	}
+
+	/**
+	 * Move experience from multiple sources into one target, and return the amount that was successfully moved.
+	 * Sources that do not support extraction are skipped. The whole batch is executed in a single transaction.
+	 *
+	 * @param sources The source storages.
+	 * @param to The target storage. May be null.
+	 * @param maxAmount The maximum amount that may be moved in total.
+	 * @param strategy How the experience is split between the sources.
+	 * @param transaction The transaction this transfer is part of,
+	 *                    or {@code null} if a transaction should be opened just for this transfer.
+	 * @return The amount of experience that was successfully moved.
+	 */
+	public static long collect(List<? extends ExperienceStorage> sources, @Nullable ExperienceStorage to, long maxAmount, ExperienceTransferStrategy strategy, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+		if (to == null || !to.supportsInsertion() || maxAmount == 0) return 0;
+
+		List<ExperienceStorage> extractableSources = filter(sources, false);
+		if (extractableSources.isEmpty()) return 0;
+
+		ExperienceMetrics.onTransactionsOpened(1);
+		try (Transaction batchTransaction = Transaction.openNested(transaction)) {
+			long moved = collectWithin(extractableSources, to, maxAmount, strategy, batchTransaction);
+			batchTransaction.commit();
+			ExperienceMetrics.onTransfer(moved);
+			return moved;
+		}
+	}
+
+	/**
+	 * Array variant of {@link #collect(List, ExperienceStorage, long, ExperienceTransferStrategy, TransactionContext)}.
+	 */
+	public static long collect(ExperienceStorage[] sources, @Nullable ExperienceStorage to, long maxAmount, ExperienceTransferStrategy strategy, @Nullable TransactionContext transaction) {
+		return collect(Arrays.asList(sources), to, maxAmount, strategy, transaction);
+	}
+
+	/**
+	 * Move experience from multiple sources to multiple targets, and return the amount that was successfully moved.
+	 * The strategy is used both to split the amount between the sources, and to split each source's share between the targets.
+	 * Sources that do not support extraction and targets that do not support insertion are skipped.
+	 * The whole batch is executed in a single transaction.
+	 *
+	 * @param sources The source storages.
+	 * @param targets The target storages.
+	 * @param maxAmount The maximum amount that may be moved in total.
+	 * @param strategy How the experience is split between the sources and targets.
+	 * @param transaction The transaction this transfer is part of,
+	 *                    or {@code null} if a transaction should be opened just for this transfer.
+	 * @return The amount of experience that was successfully moved.
+	 */
+	public static long moveAll(List<? extends ExperienceStorage> sources, List<? extends ExperienceStorage> targets, long maxAmount, ExperienceTransferStrategy strategy, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+		if (maxAmount == 0) return 0;
+
+		List<ExperienceStorage> extractableSources = filter(sources, false);
+		List<ExperienceStorage> insertableTargets = filter(targets, true);
+		if (extractableSources.isEmpty() || insertableTargets.isEmpty()) return 0;
+
+		ExperienceMetrics.onTransactionsOpened(1);
+		try (Transaction batchTransaction = Transaction.openNested(transaction)) {
+			long moved = strategy.transfer(extractableSources, maxAmount, new ExperienceTransferStrategy.PeerTransfer() {
+				@Override
+				public long transfer(ExperienceStorage source, long amount) {
+					return distributeWithin(source, insertableTargets, amount, strategy, batchTransaction);
+				}
+
+				@Override
+				public long weight(ExperienceStorage source) {
+					return source.getAmount();
+				}
+			});
+			batchTransaction.commit();
+			ExperienceMetrics.onTransfer(moved);
+			return moved;
+		}
+	}
+
+	/**
+	 * Array variant of {@link #moveAll(List, List, long, ExperienceTransferStrategy, TransactionContext)}.
+	 */
+	public static long moveAll(ExperienceStorage[] sources, ExperienceStorage[] targets, long maxAmount, ExperienceTransferStrategy strategy, @Nullable TransactionContext transaction) {
+		return moveAll(Arrays.asList(sources), Arrays.asList(targets), maxAmount, strategy, transaction);
+	}
+
+	/**
+	 * Move experience from a storage into the experience storing items of an inventory, and return the amount that was successfully moved.
+	 * Slots are filled in order, each slot is only touched once, and empty slots or items without an {@link ExperienceStorage#ITEM}
+	 * are skipped. The whole sweep is executed in a single transaction.
+	 *
+	 * @param from The source storage. May be null.
+	 * @param inventory The inventory whose items should be charged.
+	 * @param maxAmount The maximum amount that may be moved in total.
+	 * @param transaction The transaction this transfer is part of,
+	 *                    or {@code null} if a transaction should be opened just for this transfer.
+	 * @return The amount of experience that was successfully moved.
+	 */
+	public static long chargeInventory(@Nullable ExperienceStorage from, InventoryStorage inventory, long maxAmount, @Nullable TransactionContext transaction) {
+		return chargeInventory(from, inventory, null, maxAmount, transaction);
+	}
+
+	/**
+	 * Player variant of {@link #chargeInventory(ExperienceStorage, InventoryStorage, long, TransactionContext)}.
+	 * Uses player slot contexts, so that items that need to be split off from their stack can overflow into the rest of the inventory.
+	 */
+	public static long chargeInventory(@Nullable ExperienceStorage from, PlayerEntity player, long maxAmount, @Nullable TransactionContext transaction) {
+		return chargeInventory(from, PlayerInventoryStorage.of(player), player, maxAmount, transaction);
+	}
+
+	private static long chargeInventory(@Nullable ExperienceStorage from, InventoryStorage inventory, @Nullable PlayerEntity player, long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+		// Checked before the slots are looked up
+		if (from == null || !from.supportsExtraction() || maxAmount == 0) return 0;
+
+		return distribute(from, InventoryExperienceStorage.findItemStorages(inventory, player), maxAmount, ExperienceTransferStrategy.FILL_FIRST, transaction);
+	}
+
+	/**
+	 * Move experience from the experience storing items of an inventory into a storage, and return the amount that was successfully moved.
+	 * Slots are drained in order, each slot is only touched once, and empty slots or items without an {@link ExperienceStorage#ITEM}
+	 * are skipped. The whole sweep is executed in a single transaction.
+	 *
+	 * @param inventory The inventory whose items should be drained.
+	 * @param to The target storage. May be null.
+	 * @param maxAmount The maximum amount that may be moved in total.
+	 * @param transaction The transaction this transfer is part of,
+	 *                    or {@code null} if a transaction should be opened just for this transfer.
+	 * @return The amount of experience that was successfully moved.
+	 */
+	public static long drainInventory(InventoryStorage inventory, @Nullable ExperienceStorage to, long maxAmount, @Nullable TransactionContext transaction) {
+		return drainInventory(inventory, null, to, maxAmount, transaction);
+	}
+
+	/**
+	 * Player variant of {@link #drainInventory(InventoryStorage, ExperienceStorage, long, TransactionContext)}.
+	 * Uses player slot contexts, so that items that need to be split off from their stack can overflow into the rest of the inventory.
+	 */
+	public static long drainInventory(PlayerEntity player, @Nullable ExperienceStorage to, long maxAmount, @Nullable TransactionContext transaction) {
+		return drainInventory(PlayerInventoryStorage.of(player), player, to, maxAmount, transaction);
+	}
+
+	private static long drainInventory(InventoryStorage inventory, @Nullable PlayerEntity player, @Nullable ExperienceStorage to, long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+		// Checked before the slots are looked up
+		if (to == null || !to.supportsInsertion() || maxAmount == 0) return 0;
+
+		return collect(InventoryExperienceStorage.findItemStorages(inventory, player), to, maxAmount, ExperienceTransferStrategy.FILL_FIRST, transaction);
+	}
+
+	/**
+	 * Move the experience of all experience orbs in an area into a storage, and return the amount that was successfully moved.
+	 * The orbs are found with a single entity query, and drained through {@link ExperienceStorage#ENTITY} in a single transaction.
+	 * Orbs that are drained completely are removed once the outermost transaction is committed.
+	 *
+	 * @param world The world to search for orbs.
+	 * @param box The area to search for orbs.
+	 * @param to The target storage. May be null.
+	 * @param maxAmount The maximum amount that may be moved in total.
+	 * @param transaction The transaction this transfer is part of,
+	 *                    or {@code null} if a transaction should be opened just for this transfer.
+	 * @return The amount of experience that was successfully moved.
+	 */
+	public static long collectOrbs(World world, Box box, @Nullable ExperienceStorage to, long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+		if (to == null || !to.supportsInsertion() || maxAmount == 0) return 0;
+
+		List<ExperienceOrbEntity> orbs = world.getEntitiesByClass(ExperienceOrbEntity.class, box, Entity::isAlive);
+		List<ExperienceStorage> sources = new ArrayList<>(orbs.size());
+		for (ExperienceOrbEntity orb : orbs) {
+			sources.add(ExperienceStorage.ENTITY.find(orb, null));
+		}
+
+		return collect(sources, to, maxAmount, ExperienceTransferStrategy.FILL_FIRST, transaction);
+	}
+
+	private static long distributeWithin(ExperienceStorage from, List<ExperienceStorage> targets, long maxAmount, ExperienceTransferStrategy strategy, Transaction batchTransaction) {
+		// Simulate extraction once for the whole batch, so the targets are never offered more than the source has.
+		long maxExtracted = from.simulateExtract(maxAmount, batchTransaction);
+		if (maxExtracted == 0) return 0;
+
+		boolean sourceExact = from.hasExactSimulation();
+
+		return strategy.transfer(targets, maxExtracted, new ExperienceTransferStrategy.PeerTransfer() {
+			@Override
+			public long transfer(ExperienceStorage target, long amount) {
+				if (sourceExact && target.hasExactSimulation()) {
+					long moved = moveExact(from, target, amount, batchTransaction);
+					if (moved >= 0) return moved;
+				}
+
+				ExperienceMetrics.onTransactionsOpened(1);
+				try (Transaction moveTransaction = batchTransaction.openNested()) {
+					long accepted = target.insert(amount, moveTransaction);
+					if (accepted > 0 && from.extract(accepted, moveTransaction) == accepted) {
+						moveTransaction.commit();
+						return accepted;
+					}
+				}
+				return 0;
+			}
+
+			@Override
+			public long weight(ExperienceStorage target) {
+				return Math.max(0, target.getCapacity() - target.getAmount());
+			}
+		});
+	}
+
+	private static long collectWithin(List<ExperienceStorage> sources, ExperienceStorage to, long maxAmount, ExperienceTransferStrategy strategy, Transaction batchTransaction) {
+		// Simulate insertion once for the whole batch, so the sources are never drained of more than the target accepts.
+		long maxInserted = to.simulateInsert(maxAmount, batchTransaction);
+		if (maxInserted == 0) return 0;
+
+		boolean targetExact = to.hasExactSimulation();
+
+		return strategy.transfer(sources, maxInserted, new ExperienceTransferStrategy.PeerTransfer() {
+			@Override
+			public long transfer(ExperienceStorage source, long amount) {
+				if (targetExact && source.hasExactSimulation()) {
+					long moved = moveExact(source, to, amount, batchTransaction);
+					if (moved >= 0) return moved;
+				}
+
+				ExperienceMetrics.onTransactionsOpened(1);
+				try (Transaction moveTransaction = batchTransaction.openNested()) {
+					long extracted = source.extract(amount, moveTransaction);
+					if (extracted > 0 && to.insert(extracted, moveTransaction) == extracted) {
+						moveTransaction.commit();
+						return extracted;
+					}
+				}
+				return 0;
+			}
+
+			@Override
+			public long weight(ExperienceStorage source) {
+				return source.getAmount();
+			}
+		});
+	}
+
+	private static List<ExperienceStorage> filter(List<? extends ExperienceStorage> storages, boolean insertion) {
+		List<ExperienceStorage> filtered = new ArrayList<>(storages.size());
+		for (ExperienceStorage storage : storages) {
+			if (storage != null && (insertion ? storage.supportsInsertion() : storage.supportsExtraction())) {
+				filtered.add(storage);
+			}
+		}
+		return filtered;
+	}
+
 	/**
 	 * Return true if the passed stack offers an experience storage through {@link ExperienceStorage#ITEM}.
 	 * This can typically be used for inventories or slots that want to accept experience storages only.
@@ -0,0 +1,60 @@
+package de.dafuqs.thefabricexperience.api.storage;
+
+import de.dafuqs.thefabricexperience.impl.storage.*;
+
+import java.util.*;
+
+/**
+ * Decides how a batch transfer of {@link ExperienceStorageUtil} splits experience between multiple storages.
+ *
+ * <p>A batch transfer always has one fixed end (the single source when distributing, the single target when collecting)
+ * and a list of peers on the other end. The strategy is handed these peers and a {@link PeerTransfer}
+ * that moves experience between the fixed end and one peer. It is free to call it as often and in whatever order it likes,
+ * as long as the total amount requested does not exceed {@code maxAmount}.
+ *
+ * <p>All calls happen as part of the single transaction that is opened for the whole batch.
+ */
+@SuppressWarnings("unused")
+@FunctionalInterface
+public interface ExperienceTransferStrategy {
+	/**
+	 * Fill (or drain) the peers in order: the second peer only gets experience once the first one cannot take any more.
+	 */
+	ExperienceTransferStrategy FILL_FIRST = TransferStrategyImpl.FILL_FIRST;
+
+	/**
+	 * Give every peer an equal share, then hand out what saturated peers could not take to the remaining ones.
+	 */
+	ExperienceTransferStrategy ROUND_ROBIN = TransferStrategyImpl.ROUND_ROBIN;
+
+	/**
+	 * Split proportionally to {@link PeerTransfer#weight}: the free capacity when distributing, the stored amount when collecting.
+	 * Leftovers of the proportional pass are handed out like {@link #ROUND_ROBIN}.
+	 */
+	ExperienceTransferStrategy PROPORTIONAL = TransferStrategyImpl.PROPORTIONAL;
+
+	/**
+	 * Move up to {@code maxAmount} experience between the fixed end of the batch and the passed peers.
+	 *
+	 * @param peers The storages on the other end of the batch. Storages that do not support the operation are already filtered out.
+	 * @param maxAmount The maximum amount that may be moved in total.
+	 * @param transfer Moves experience between the fixed end of the batch and a single peer.
+	 * @return The amount of experience that was moved in total.
+	 */
+	long transfer(List<ExperienceStorage> peers, long maxAmount, PeerTransfer transfer);
+
+	/**
+	 * Moves experience between the fixed end of a batch transfer and a single peer.
+	 */
+	interface PeerTransfer {
+		/**
+		 * @return The amount that was actually moved, never more than {@code maxAmount}.
+		 */
+		long transfer(ExperienceStorage peer, long maxAmount);
+
+		/**
+		 * @return A nonnegative weight of the peer for proportional splitting.
+		 */
+		long weight(ExperienceStorage peer);
+	}
+}
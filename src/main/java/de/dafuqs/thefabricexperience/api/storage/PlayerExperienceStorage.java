@@ -0,0 +1,228 @@
+package de.dafuqs.thefabricexperience.api.storage;
+
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import de.dafuqs.thefabricexperience.impl.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.entity.player.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * The experience of a player, as an {@link ExperienceStorage}.
+ *
+ * <p>The amount is the total number of experience points the player's level and progress bar are worth,
+ * the same number vanilla drops as orbs or spends in an anvil. Points and levels are converted in closed form,
+ * so transfers of any size cost the same, instead of walking level thresholds one by one like {@link PlayerEntity#addExperience}.
+ *
+ * <p>Changes are collected as a pending delta that is snapshotted with the transaction, and only applied to the player
+ * once the outermost transaction is committed. Experience the player gains or loses outside the transaction in the meantime is kept.
+ * There is a single storage per player entity, kept on the entity itself. Get it with {@link #of}.
+ *
+ * <p>Insertion is capped at {@link #MAX_LEVEL}, which keeps the points of a single level well within the precision of the progress bar.
+ * Players above it (through commands, or other mods) report their real amount and can be drained, but not filled.
+ * Only players above {@link #MAX_EXACT_LEVEL}, whose points do not fit into a long, are neither filled nor drained, so they never lose levels.
+ *
+ * <p>The score shown on the death screen ({@link PlayerEntity#totalExperience}) is adjusted by the points that were moved, like vanilla does.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public final class PlayerExperienceStorage extends LongSnapshotParticipant implements ExperienceStorage {
+	public static final int MAX_LEVEL = 1_000_000;
+	public static final long MAX_EXPERIENCE = getTotalExperienceForLevel(MAX_LEVEL);
+	/**
+	 * The highest level whose points can be represented. Players above it report {@link Long#MAX_VALUE}.
+	 */
+	public static final int MAX_EXACT_LEVEL = 1_000_000_000;
+
+	private final PlayerEntity player;
+	private long pendingDelta = 0;
+
+	private PlayerExperienceStorage(PlayerEntity player) {
+		this.player = player;
+	}
+
+	/**
+	 * @return The experience storage of the passed player.
+	 */
+	public static PlayerExperienceStorage of(PlayerEntity player) {
+		ExperienceStorageHolder holder = (ExperienceStorageHolder) player;
+		if (holder.thefabricexperience$getExperienceStorage() instanceof PlayerExperienceStorage storage) {
+			return storage;
+		}
+		PlayerExperienceStorage storage = new PlayerExperienceStorage(player);
+		holder.thefabricexperience$setExperienceStorage(storage);
+		return storage;
+	}
+
+	public PlayerEntity getPlayer() {
+		return player;
+	}
+
+	@Override
+	protected long createSnapshot() {
+		return pendingDelta;
+	}
+
+	@Override
+	protected void readSnapshot(long snapshot) {
+		pendingDelta = snapshot;
+	}
+
+	@Override
+	protected void onFinalCommit() {
+		setTotalExperience(player, getTotalExperience(player) + pendingDelta);
+		pendingDelta = 0;
+	}
+
+	@Override
+	public long insert(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		long inserted = simulateInsert(maxAmount, transaction);
+
+		if (inserted > 0) {
+			updateSnapshots(transaction);
+			pendingDelta += inserted;
+		}
+
+		return inserted;
+	}
+
+	@Override
+	public long extract(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		long extracted = simulateExtract(maxAmount, transaction);
+
+		if (extracted > 0) {
+			updateSnapshots(transaction);
+			pendingDelta -= extracted;
+		}
+
+		return extracted;
+	}
+
+	@Override
+	public boolean hasExactSimulation() {
+		return true;
+	}
+
+	@Override
+	public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		return Math.max(0, Math.min(maxAmount, MAX_EXPERIENCE - getAmount()));
+	}
+
+	@Override
+	public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		if (player.experienceLevel > MAX_EXACT_LEVEL) {
+			return 0;
+		}
+		return Math.max(0, Math.min(maxAmount, getAmount()));
+	}
+
+	@Override
+	public long getAmount() {
+		return getTotalExperience(player) + pendingDelta;
+	}
+
+	@Override
+	public long getCapacity() {
+		return MAX_EXPERIENCE;
+	}
+
+	/**
+	 * @return The points the current level and progress of the player are worth, or {@link Long#MAX_VALUE} above {@link #MAX_EXACT_LEVEL}.
+	 */
+	public static long getTotalExperience(PlayerEntity player) {
+		int level = Math.max(player.experienceLevel, 0);
+		if (level > MAX_EXACT_LEVEL) {
+			return Long.MAX_VALUE;
+		}
+		float progress = MathHelper.clamp(player.experienceProgress, 0.0F, 1.0F);
+		return getTotalExperienceForLevel(level) + Math.round((double) progress * getExperienceForNextLevel(level));
+	}
+
+	/**
+	 * Set the level and progress of the player to match the passed amount of points, and sync it to the client.
+	 * The score of the player is adjusted by the difference to the previous amount.
+	 * Players above {@link #MAX_EXACT_LEVEL} are left untouched.
+	 */
+	public static void setTotalExperience(PlayerEntity player, long experience) {
+		long previous = getTotalExperience(player);
+		if (previous == Long.MAX_VALUE) {
+			return;
+		}
+		experience = Math.max(0, experience);
+		int level = getLevelForTotalExperience(experience);
+
+		player.experienceLevel = level;
+		player.experienceProgress = level == MAX_EXACT_LEVEL ? 0.0F : (float) ((double) (experience - getTotalExperienceForLevel(level)) / getExperienceForNextLevel(level));
+		long scoreDelta = MathHelper.clamp(experience - previous, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		player.totalExperience = (int) MathHelper.clamp(player.totalExperience + scoreDelta, 0, Integer.MAX_VALUE);
+		// Does not change anything, but makes server players send their experience to the client again
+		player.addExperienceLevels(0);
+	}
+
+	/**
+	 * @return The points needed to get from the passed level to the next one, the same as {@link PlayerEntity#getNextLevelExperience}.
+	 */
+	public static long getExperienceForNextLevel(int level) {
+		if (level >= 30) {
+			return 112 + (level - 30) * 9L;
+		} else if (level >= 15) {
+			return 37 + (level - 15) * 5L;
+		}
+		return 7 + level * 2L;
+	}
+
+	/**
+	 * @return The points needed to get from level 0 to the passed level. The closed form of the sum of {@link #getExperienceForNextLevel}.
+	 * {@link Long#MAX_VALUE} above {@link #MAX_EXACT_LEVEL}.
+	 */
+	public static long getTotalExperienceForLevel(int level) {
+		if (level > MAX_EXACT_LEVEL) {
+			return Long.MAX_VALUE;
+		}
+		long l = level;
+		if (level <= 16) {
+			return l * l + 6 * l;
+		} else if (level <= 31) {
+			return (5 * l * l - 81 * l + 720) / 2;
+		}
+		return (9 * l * l - 325 * l + 4440) / 2;
+	}
+
+	/**
+	 * @return The highest level whose total is not more than the passed points, capped at {@link #MAX_EXACT_LEVEL}.
+	 * The inverse of {@link #getTotalExperienceForLevel}, solved with the quadratic formula and corrected for rounding.
+	 */
+	public static int getLevelForTotalExperience(long experience) {
+		if (experience <= 0) {
+			return 0;
+		} else if (experience >= getTotalExperienceForLevel(MAX_EXACT_LEVEL)) {
+			return MAX_EXACT_LEVEL;
+		}
+
+		double estimate;
+		if (experience < getTotalExperienceForLevel(17)) {
+			estimate = Math.sqrt(9.0 + experience) - 3.0;
+		} else if (experience < getTotalExperienceForLevel(32)) {
+			estimate = (81.0 + Math.sqrt(6561.0 - 20.0 * (720.0 - 2.0 * experience))) / 10.0;
+		} else {
+			estimate = (325.0 + Math.sqrt(105625.0 - 36.0 * (4440.0 - 2.0 * experience))) / 18.0;
+		}
+
+		int level = MathHelper.clamp((int) estimate, 0, MAX_EXACT_LEVEL);
+		while (level < MAX_EXACT_LEVEL && getTotalExperienceForLevel(level + 1) <= experience) {
+			level++;
+		}
+		while (level > 0 && getTotalExperienceForLevel(level) > experience) {
+			level--;
+		}
+		return level;
+	}
+}
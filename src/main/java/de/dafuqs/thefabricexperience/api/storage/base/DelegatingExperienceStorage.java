@@ -12,12 +12,15 @@ import java.util.function.*;
  * An experience storage that delegates to another experience storage,
  * with an optional boolean supplier to check that the storage is still valid.
  * This can be used for easier item experience storage implementation, or overridden for custom delegation logic.
+ * Subclasses that override the insertion or extraction operations lose exact simulation, unless they opt back in.
  */
 @SuppressWarnings({"deprecation", "UnstableApiUsage"})
 public class DelegatingExperienceStorage implements ExperienceStorage {
 	protected final Supplier<ExperienceStorage> backingStorage;
 	protected final BooleanSupplier validPredicate;
 
+	private static final ClassValue<Boolean> EXACT_SIMULATION = ExactSimulation.forBase(DelegatingExperienceStorage.class);
+
 	/**
 	 * Create a new instance.
 	 * @param backingStorage Storage to delegate to.
@@ -69,6 +72,33 @@ public class DelegatingExperienceStorage implements ExperienceStorage {
 		}
 	}
 
+	@Override
+	public boolean hasExactSimulation() {
+		return EXACT_SIMULATION.get(getClass()) && validPredicate.getAsBoolean() && backingStorage.get().hasExactSimulation();
+	}
+
+	@Override
+	public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		if (validPredicate.getAsBoolean()) {
+			return backingStorage.get().simulateInsert(maxAmount, transaction);
+		} else {
+			return 0;
+		}
+	}
+
+	@Override
+	public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		if (validPredicate.getAsBoolean()) {
+			return backingStorage.get().simulateExtract(maxAmount, transaction);
+		} else {
+			return 0;
+		}
+	}
+
 	@Override
 	public long getAmount() {
 		if (validPredicate.getAsBoolean()) {
@@ -0,0 +1,37 @@
+package de.dafuqs.thefabricexperience.api.storage.base;
+
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+
+/**
+ * Base storages can only promise {@link de.dafuqs.thefabricexperience.api.storage.ExperienceStorage#hasExactSimulation exact simulation}
+ * as long as subclasses do not replace the operations their simulations mirror.
+ * Subclasses that do can still override {@code hasExactSimulation} to opt back in.
+ */
+@SuppressWarnings("UnstableApiUsage")
+final class ExactSimulation {
+	private static final String[] OPERATIONS = {"insert", "extract", "simulateInsert", "simulateExtract"};
+
+	private ExactSimulation() {
+	}
+
+	/**
+	 * @return A per class cache of whether the class still uses the operations declared by the passed base class.
+	 */
+	static ClassValue<Boolean> forBase(Class<?> base) {
+		return new ClassValue<>() {
+			@Override
+			protected Boolean computeValue(Class<?> type) {
+				try {
+					for (String operation : OPERATIONS) {
+						if (type.getMethod(operation, long.class, TransactionContext.class).getDeclaringClass() != base) {
+							return false;
+						}
+					}
+					return true;
+				} catch (NoSuchMethodException e) {
+					return false;
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,111 @@
+package de.dafuqs.thefabricexperience.api.storage.base;
+
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.base.*;
+
+import java.util.*;
+
+/**
+ * A primitive specialization of {@link SnapshotParticipant} for participants whose whole state fits into a single {@code long}.
+ * Snapshots are journaled in a plain array indexed by transaction depth, so taking and restoring them never allocates.
+ *
+ * <p>Rollback semantics are identical to {@code SnapshotParticipant}:
+ * <ul>
+ *     <li>{@link #createSnapshot} is called at most once per transaction depth, before the first modification.</li>
+ *     <li>{@link #readSnapshot} is called when a transaction that took a snapshot is aborted.</li>
+ *     <li>{@link #onFinalCommit} is called once the outermost transaction was committed.</li>
+ * </ul>
+ *
+ * <p>Participants can override {@link #skipsUnchangedCommits} to skip {@code onFinalCommit}
+ * when the committed state is the same as the state before the outermost transaction.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public abstract class LongSnapshotParticipant implements TransactionContext.CloseCallback, TransactionContext.OuterCloseCallback {
+	private long[] snapshots = new long[4];
+	private boolean[] hasSnapshot = new boolean[4];
+	private long outerSnapshot;
+
+	/**
+	 * Return a new snapshot of the current state.
+	 */
+	protected abstract long createSnapshot();
+
+	/**
+	 * Roll back to a state previously created by {@link #createSnapshot}.
+	 */
+	protected abstract void readSnapshot(long snapshot);
+
+	/**
+	 * Called after the outermost transaction that modified this participant was committed.
+	 * This can be overridden to call {@code markDirty} and similar functions.
+	 */
+	protected void onFinalCommit() {
+	}
+
+	/**
+	 * Return true to skip {@link #onFinalCommit} when a committed transaction did not change the state in total,
+	 * for example when the same amount was inserted and extracted again. Defaults to false.
+	 */
+	protected boolean skipsUnchangedCommits() {
+		return false;
+	}
+
+	/**
+	 * Update the stored snapshots so that the changes happening as part of the passed transaction can be correctly
+	 * committed or rolled back.
+	 * This function should be called every time the participant is about to change its internal state as part of a transaction.
+	 */
+	public void updateSnapshots(TransactionContext transaction) {
+		int depth = transaction.nestingDepth();
+		ensureCapacity(depth);
+
+		// Only the first modification at this depth needs a snapshot and a close callback.
+		if (!hasSnapshot[depth]) {
+			snapshots[depth] = createSnapshot();
+			hasSnapshot[depth] = true;
+			transaction.addCloseCallback(this);
+		}
+	}
+
+	@Override
+	public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+		int depth = transaction.nestingDepth();
+		long snapshot = snapshots[depth];
+		hasSnapshot[depth] = false;
+
+		if (result.wasAborted()) {
+			// If the transaction was aborted, we just revert to the state of the snapshot.
+			readSnapshot(snapshot);
+		} else if (depth > 0) {
+			if (!hasSnapshot[depth - 1]) {
+				// No snapshot yet, so move the snapshot one nesting level up.
+				snapshots[depth - 1] = snapshot;
+				hasSnapshot[depth - 1] = true;
+				transaction.getOpenTransaction(depth - 1).addCloseCallback(this);
+			}
+			// Otherwise there is already an older snapshot at the higher nesting level, and this one can be dropped.
+		} else {
+			// Snapshot is not needed anymore: notify the transaction manager.
+			// It is still the state before the outer transaction, which is what unchanged commits are detected with.
+			outerSnapshot = snapshot;
+			transaction.addOuterCloseCallback(this);
+		}
+	}
+
+	@Override
+	public void afterOuterClose(TransactionContext.Result result) {
+		// The result is guaranteed to be COMMITTED,
+		// as this is only scheduled during onClose when the outer transaction is successful.
+		if (!skipsUnchangedCommits() || createSnapshot() != outerSnapshot) {
+			onFinalCommit();
+		}
+	}
+
+	private void ensureCapacity(int depth) {
+		if (depth >= snapshots.length) {
+			int newLength = Math.max(snapshots.length * 2, depth + 1);
+			snapshots = Arrays.copyOf(snapshots, newLength);
+			hasSnapshot = Arrays.copyOf(hasSnapshot, newLength);
+		}
+	}
+}
@@ -1,16 +1,27 @@
 package de.dafuqs.thefabricexperience.api.storage.base;
 
 import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.impl.jfr.*;
+import de.dafuqs.thefabricexperience.impl.metrics.*;
 import net.fabricmc.fabric.api.transfer.v1.storage.*;
 import net.fabricmc.fabric.api.transfer.v1.transaction.*;
-import net.fabricmc.fabric.api.transfer.v1.transaction.base.*;
+import net.minecraft.nbt.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
 
 /**
  * A base experience storage implementation with fixed capacity, and per-operation insertion and extraction limits.
  * Make sure to override {@link #onFinalCommit} to call {@code markDirty} and similar functions.
+ * It is only called if the committed amount differs from the amount before the transaction,
+ * so balanced transfers through a storage do not mark its chunk dirty.
+ * {@link #writeNbt} and {@link #readNbt} can be used to persist the amount.
+ * Subclasses that override the insertion and extraction operations lose exact simulation, unless they opt back in.
+ * Custom limits should override {@link #getInsertableAmount} and {@link #getExtractableAmount} instead, which keeps it.
  */
 @SuppressWarnings({"unused", "UnstableApiUsage"})
-public class SimpleExperienceStorage extends SnapshotParticipant<Long> implements ExperienceStorage {
+public class SimpleExperienceStorage extends LongSnapshotParticipant implements ExperienceStorage {
+	private static final ClassValue<Boolean> EXACT_SIMULATION = ExactSimulation.forBase(SimpleExperienceStorage.class);
+
 	public long amount = 0;
 	public final long capacity;
 	public final long maxInsert, maxExtract;
@@ -25,13 +36,33 @@ public class SimpleExperienceStorage extends SnapshotParticipant<Long> implement
 		this.maxExtract = maxExtract;
 	}
 
+	/**
+	 * Write the amount into the passed compound.
+	 */
+	public NbtCompound writeNbt(NbtCompound nbt) {
+		nbt.putLong(SimpleExperienceStorageItem.STORED_XP_KEY, amount);
+		return nbt;
+	}
+
+	/**
+	 * Read the amount from the passed compound, clamped to the capacity.
+	 */
+	public void readNbt(NbtCompound nbt) {
+		amount = MathHelper.clamp(nbt.getLong(SimpleExperienceStorageItem.STORED_XP_KEY), 0, capacity);
+	}
+
+	@Override
+	protected boolean skipsUnchangedCommits() {
+		return true;
+	}
+
 	@Override
-	protected Long createSnapshot() {
+	protected long createSnapshot() {
 		return amount;
 	}
 
 	@Override
-	protected void readSnapshot(Long snapshot) {
+	protected void readSnapshot(long snapshot) {
 		amount = snapshot;
 	}
 
@@ -43,16 +74,22 @@ public class SimpleExperienceStorage extends SnapshotParticipant<Long> implement
 	@Override
 	public long insert(long maxAmount, TransactionContext transaction) {
 		StoragePreconditions.notNegative(maxAmount);
+		ExperienceMetrics.onInsert();
+		ExperienceStorageEvent event = ExperienceEvents.beginStorageOperation();
 
-		long inserted = Math.min(maxInsert, Math.min(maxAmount, capacity - amount));
+		long inserted = getInsertableAmount(maxAmount);
 
 		if (inserted > 0) {
 			updateSnapshots(transaction);
 			amount += inserted;
-			return inserted;
+		} else {
+			inserted = 0;
 		}
 
-		return 0;
+		if (event != null) {
+			ExperienceEvents.endInsert(event, this, inserted, transaction);
+		}
+		return inserted;
 	}
 
 	@Override
@@ -63,16 +100,55 @@ public class SimpleExperienceStorage extends SnapshotParticipant<Long> implement
 	@Override
 	public long extract(long maxAmount, TransactionContext transaction) {
 		StoragePreconditions.notNegative(maxAmount);
+		ExperienceMetrics.onExtract();
+		ExperienceStorageEvent event = ExperienceEvents.beginStorageOperation();
 
-		long extracted = Math.min(maxExtract, Math.min(maxAmount, amount));
+		long extracted = getExtractableAmount(maxAmount);
 
 		if (extracted > 0) {
 			updateSnapshots(transaction);
 			amount -= extracted;
-			return extracted;
+		} else {
+			extracted = 0;
+		}
+
+		if (event != null) {
+			ExperienceEvents.endExtract(event, this, extracted, transaction);
 		}
+		return extracted;
+	}
+
+	@Override
+	public boolean hasExactSimulation() {
+		return EXACT_SIMULATION.get(getClass());
+	}
+
+	@Override
+	public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		return Math.max(0, getInsertableAmount(maxAmount));
+	}
+
+	@Override
+	public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		return Math.max(0, getExtractableAmount(maxAmount));
+	}
+
+	/**
+	 * @return How much of the passed amount can be inserted right now. Used by both {@link #insert} and {@link #simulateInsert}.
+	 */
+	protected long getInsertableAmount(long maxAmount) {
+		return Math.min(maxInsert, Math.min(maxAmount, capacity - amount));
+	}
 
-		return 0;
+	/**
+	 * @return How much of the passed amount can be extracted right now. Used by both {@link #extract} and {@link #simulateExtract}.
+	 */
+	protected long getExtractableAmount(long maxAmount) {
+		return Math.min(maxExtract, Math.min(maxAmount, amount));
 	}
 
 	@Override
@@ -28,7 +28,14 @@ public interface SimpleExperienceStorageItem {
 	 * For example, insertion of 3 units of experience into a stack of 2 items using this class will either insert 0 or 2 depending on the remaining capacity.
 	 */
 	static ExperienceStorage createStorage(ContainerItemContext ctx, long capacity, long maxInsert, long maxExtract) {
-		return SimpleItemExperienceStorageImpl.createSimpleStorage(ctx, capacity, maxInsert, maxExtract);
+		return SimpleItemExperienceStorageImpl.createSimpleStorage(ctx, capacity, maxInsert, maxExtract, FillMode.EVEN);
+	}
+
+	/**
+	 * Variant of {@link #createStorage(ContainerItemContext, long, long, long)} with a custom {@link FillMode} for stacked items.
+	 */
+	static ExperienceStorage createStorage(ContainerItemContext ctx, long capacity, long maxInsert, long maxExtract, FillMode fillMode) {
+		return SimpleItemExperienceStorageImpl.createSimpleStorage(ctx, capacity, maxInsert, maxExtract, fillMode);
 	}
 
 	/**
@@ -49,6 +56,14 @@ public interface SimpleExperienceStorageItem {
 	 */
 	long getMaxExperienceOutput(ItemStack stack);
 
+	/**
+	 * @param stack Current stack.
+	 * @return How experience is spread across the items of a stack. Defaults to {@link FillMode#EVEN}.
+	 */
+	default FillMode getFillMode(ItemStack stack) {
+		return FillMode.EVEN;
+	}
+
 	/**
 	 * @return The experience stored in the stack. Count is ignored.
 	 */
@@ -109,4 +124,23 @@ public interface SimpleExperienceStorageItem {
 			stack.getOrCreateNbt().putLong(STORED_XP_KEY, newAmount);
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * How item experience storages spread experience across the items of a stack.
+	 */
+	enum FillMode {
+		/**
+		 * All items of the stack always store the same amount.
+		 * Amounts that cannot be divided evenly by the stack count are not transferred.
+		 */
+		EVEN,
+		/**
+		 * Items are filled or drained one after another.
+		 * The stack is split into items that received their full share, at most one partially filled item, and the untouched rest.
+		 * Each operation creates at most two new variants, and amounts smaller than the stack count can still be transferred.
+		 * The split off items need somewhere to go, like the overflow slots of player inventories.
+		 * In contexts without room for them, like single slot inventories, stacks fall back to {@link #EVEN}.
+		 */
+		SEQUENTIAL
+	}
+}
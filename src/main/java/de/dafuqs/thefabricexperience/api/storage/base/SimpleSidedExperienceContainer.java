@@ -1,9 +1,10 @@
 package de.dafuqs.thefabricexperience.api.storage.base;
 
 import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.impl.metrics.*;
 import net.fabricmc.fabric.api.transfer.v1.storage.*;
 import net.fabricmc.fabric.api.transfer.v1.transaction.*;
-import net.fabricmc.fabric.api.transfer.v1.transaction.base.*;
+import net.minecraft.nbt.*;
 import net.minecraft.util.math.*;
 import org.jetbrains.annotations.*;
 
@@ -11,9 +12,15 @@ import org.jetbrains.annotations.*;
  * A base experience storage implementation with a dynamic capacity, and per-side per-operation insertion and extraction limits.
  * {@link #getSideStorage} can be used to get an {@code ExperienceStorage} implementation for a given side.
  * Make sure to override {@link #onFinalCommit} to call {@code markDirty} and similar functions.
+ * It is only called if the committed amount differs from the amount before the transaction.
+ * {@link #writeNbt} and {@link #readNbt} can be used to persist the amount.
+ *
+ * <p>Optionally, the throughput of each side can also be limited per tick, by overriding {@link #getCurrentTick}
+ * and {@link #getMaxInsertPerTick}/{@link #getMaxExtractPerTick}. The per-tick budgets are reset lazily on the first
+ * operation of a new tick, so no ticking is required, and their consumption is rolled back with the transaction.
  */
 @SuppressWarnings({"unused", "UnstableApiUsage"})
-public abstract class SimpleSidedExperienceContainer extends SnapshotParticipant<Long> {
+public abstract class SimpleSidedExperienceContainer extends LongSnapshotParticipant {
 	public long amount = 0;
 	private final SideStorage[] sideStorages = new SideStorage[7];
 
@@ -38,6 +45,30 @@ public abstract class SimpleSidedExperienceContainer extends SnapshotParticipant
 	 */
 	public abstract long getMaxExtract(@Nullable Direction side);
 
+	/**
+	 * @return The maximum amount of experience that can be inserted from the passed side during a single tick, over all operations.
+	 * Only used if {@link #getCurrentTick} is overridden.
+	 */
+	public long getMaxInsertPerTick(@Nullable Direction side) {
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return The maximum amount of experience that can be extracted from the passed side during a single tick, over all operations.
+	 * Only used if {@link #getCurrentTick} is overridden.
+	 */
+	public long getMaxExtractPerTick(@Nullable Direction side) {
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return The current tick used for the per-tick limits, or a negative number to disable them.
+	 * Block entities would typically return {@code world == null ? -1 : world.getTime()}.
+	 */
+	protected long getCurrentTick() {
+		return -1;
+	}
+
 	/**
 	 * @return An {@link ExperienceStorage} implementation for the passed side.
 	 */
@@ -45,18 +76,40 @@ public abstract class SimpleSidedExperienceContainer extends SnapshotParticipant
 		return sideStorages[side == null ? 6 : side.getId()];
 	}
 
+	/**
+	 * Write the amount into the passed compound.
+	 */
+	public NbtCompound writeNbt(NbtCompound nbt) {
+		nbt.putLong(SimpleExperienceStorageItem.STORED_XP_KEY, amount);
+		return nbt;
+	}
+
+	/**
+	 * Read the amount from the passed compound.
+	 * It is not clamped to the capacity, since that might depend on state that is not loaded yet.
+	 */
+	public void readNbt(NbtCompound nbt) {
+		amount = Math.max(0, nbt.getLong(SimpleExperienceStorageItem.STORED_XP_KEY));
+	}
+
 	@Override
-	protected Long createSnapshot() {
+	protected boolean skipsUnchangedCommits() {
+		return true;
+	}
+
+	@Override
+	protected long createSnapshot() {
 		return amount;
 	}
 
 	@Override
-	protected void readSnapshot(Long snapshot) {
+	protected void readSnapshot(long snapshot) {
 		amount = snapshot;
 	}
 
 	private class SideStorage implements ExperienceStorage {
 		private final Direction side;
+		private @Nullable TickBudget insertBudget, extractBudget;
 
 		private SideStorage(Direction side) {
 			this.side = side;
@@ -70,12 +123,16 @@ public abstract class SimpleSidedExperienceContainer extends SnapshotParticipant
 		@Override
 		public long insert(long maxAmount, TransactionContext transaction) {
 			StoragePreconditions.notNegative(maxAmount);
+			ExperienceMetrics.onInsert();
 
-			long inserted = Math.min(getMaxInsert(side), Math.min(maxAmount, getCapacity() - amount));
+			long inserted = getInsertableAmount(maxAmount);
 
 			if (inserted > 0) {
 				updateSnapshots(transaction);
 				amount += inserted;
+				if (insertBudget != null && insertBudget.isActive()) {
+					insertBudget.consume(inserted, transaction);
+				}
 				return inserted;
 			}
 
@@ -90,18 +147,67 @@ public abstract class SimpleSidedExperienceContainer extends SnapshotParticipant
 		@Override
 		public long extract(long maxAmount, TransactionContext transaction) {
 			StoragePreconditions.notNegative(maxAmount);
+			ExperienceMetrics.onExtract();
 
-			long extracted = Math.min(getMaxExtract(side), Math.min(maxAmount, amount));
+			long extracted = getExtractableAmount(maxAmount);
 
 			if (extracted > 0) {
 				updateSnapshots(transaction);
 				amount -= extracted;
+				if (extractBudget != null && extractBudget.isActive()) {
+					extractBudget.consume(extracted, transaction);
+				}
 				return extracted;
 			}
 
 			return 0;
 		}
 
+		@Override
+		public boolean hasExactSimulation() {
+			return true;
+		}
+
+		@Override
+		public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+			StoragePreconditions.notNegative(maxAmount);
+
+			return Math.max(0, getInsertableAmount(maxAmount));
+		}
+
+		@Override
+		public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+			StoragePreconditions.notNegative(maxAmount);
+
+			return Math.max(0, getExtractableAmount(maxAmount));
+		}
+
+		private long getInsertableAmount(long maxAmount) {
+			long insertable = Math.min(getMaxInsert(side), Math.min(maxAmount, SimpleSidedExperienceContainer.this.getCapacity() - amount));
+
+			long maxPerTick = getMaxInsertPerTick(side);
+			long tick = maxPerTick == Long.MAX_VALUE ? -1 : getCurrentTick();
+			if (tick < 0) {
+				if (insertBudget != null) insertBudget.deactivate();
+				return insertable;
+			}
+			if (insertBudget == null) insertBudget = new TickBudget();
+			return Math.min(insertable, insertBudget.getRemaining(maxPerTick, tick));
+		}
+
+		private long getExtractableAmount(long maxAmount) {
+			long extractable = Math.min(getMaxExtract(side), Math.min(maxAmount, amount));
+
+			long maxPerTick = getMaxExtractPerTick(side);
+			long tick = maxPerTick == Long.MAX_VALUE ? -1 : getCurrentTick();
+			if (tick < 0) {
+				if (extractBudget != null) extractBudget.deactivate();
+				return extractable;
+			}
+			if (extractBudget == null) extractBudget = new TickBudget();
+			return Math.min(extractable, extractBudget.getRemaining(maxPerTick, tick));
+		}
+
 		@Override
 		public long getAmount() {
 			return amount;
@@ -112,4 +218,46 @@ public abstract class SimpleSidedExperienceContainer extends SnapshotParticipant
 			return SimpleSidedExperienceContainer.this.getCapacity();
 		}
 	}
+
+	/**
+	 * The amount of experience one side already moved in one direction during the current tick.
+	 * Only the used amount is snapshotted: resetting it for a new tick is idempotent, so it does not need to be rolled back.
+	 */
+	private static final class TickBudget extends LongSnapshotParticipant {
+		private long tick = Long.MIN_VALUE;
+		private long used;
+		private boolean active;
+
+		private long getRemaining(long maxPerTick, long currentTick) {
+			if (tick != currentTick) {
+				tick = currentTick;
+				used = 0;
+			}
+			active = true;
+			return Math.max(0, maxPerTick - used);
+		}
+
+		private boolean isActive() {
+			return active;
+		}
+
+		private void deactivate() {
+			active = false;
+		}
+
+		private void consume(long amount, TransactionContext transaction) {
+			updateSnapshots(transaction);
+			used += amount;
+		}
+
+		@Override
+		protected long createSnapshot() {
+			return used;
+		}
+
+		@Override
+		protected void readSnapshot(long snapshot) {
+			used = snapshot;
+		}
+	}
 }
\ No newline at end of file
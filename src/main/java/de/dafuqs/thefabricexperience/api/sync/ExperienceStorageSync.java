@@ -0,0 +1,207 @@
+package de.dafuqs.thefabricexperience.api.sync;
+
+import de.dafuqs.thefabricexperience.*;
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.impl.sync.*;
+import it.unimi.dsi.fastutil.longs.*;
+import net.fabricmc.fabric.api.networking.v1.*;
+import net.minecraft.network.*;
+import net.minecraft.server.network.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.*;
+import net.minecraft.util.math.*;
+import net.minecraft.util.registry.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Syncs the amount and capacity of block storages to the clients that track them,
+ * so that client side code (like tank renderers or tooltips) does not need full block entity updates.
+ *
+ * <p>Block entities register their storage with {@link #register} when they are loaded, and unregister with {@link #unregister}
+ * when they are removed, just like conductors of an {@link de.dafuqs.thefabricexperience.api.network.ExperienceNetworkManager}.
+ * On the client, the synced values can be read through {@link ExperienceStorageSyncClient}.
+ *
+ * <p>At the end of every world tick, storages whose amount or capacity changed are grouped by chunk,
+ * and sent to the players tracking that chunk. Each player gets at most one packet per tick, containing only values that player has not seen yet.
+ * Positions and values are encoded as zigzag varlong deltas (positions to the previous entry, values to what the player last received),
+ * so a small change of a storage costs a few bytes. Every {@link #FULL_SCAN_INTERVAL} ticks, all storages are compared,
+ * which catches players that just started tracking a chunk. The full scan also makes players forget storages
+ * in chunks they stopped tracking, or that were removed while they were away, so neither side keeps stale entries.
+ *
+ * <p>The sync state is kept per player UUID, so respawning (which replaces the player entity) continues where it left off.
+ * When a player changes worlds, both sides start over.
+ *
+ * <p>Only usable on the logical server thread.
+ */
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public final class ExperienceStorageSync {
+	public static final Identifier PACKET_ID = new Identifier(TheFabricExperience.MOD_ID, "storage_sync");
+	public static final int FULL_SCAN_INTERVAL = 20;
+
+	private static final Map<ServerWorld, ExperienceStorageSync> SYNCS = new HashMap<>();
+	private static final Map<UUID, ExperienceSyncSession> SESSIONS = new HashMap<>();
+
+	private final ServerWorld world;
+	private final Long2ObjectOpenHashMap<ExperienceStorage> storages = new Long2ObjectOpenHashMap<>();
+	private final Long2LongOpenHashMap lastAmounts = new Long2LongOpenHashMap();
+	private final Long2LongOpenHashMap lastCapacities = new Long2LongOpenHashMap();
+	private final LongOpenHashSet removed = new LongOpenHashSet();
+
+	private ExperienceStorageSync(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * Start syncing the passed storage of the block at the passed position.
+	 * Registering a position again replaces its storage.
+	 */
+	public static void register(ServerWorld world, BlockPos pos, ExperienceStorage storage) {
+		ExperienceStorageSync sync = SYNCS.computeIfAbsent(world, ExperienceStorageSync::new);
+		long key = pos.asLong();
+		sync.storages.put(key, storage);
+		sync.removed.remove(key);
+		// Force the first comparison to count as a change
+		sync.lastAmounts.put(key, -1);
+	}
+
+	/**
+	 * Stop syncing the storage at the passed position. Clients forget the synced values.
+	 */
+	public static void unregister(ServerWorld world, BlockPos pos) {
+		ExperienceStorageSync sync = SYNCS.get(world);
+		long key = pos.asLong();
+		if (sync != null && sync.storages.remove(key) != null) {
+			sync.lastAmounts.remove(key);
+			sync.lastCapacities.remove(key);
+			sync.removed.add(key);
+		}
+	}
+
+	private void tick() {
+		boolean fullScan = world.getTime() % FULL_SCAN_INTERVAL == 0;
+		// One packet per connection, even if a respawn left an old player entity around this tick
+		Map<ExperienceSyncSession, ServerPlayerEntity> touched = new LinkedHashMap<>();
+		if (fullScan) {
+			prune(touched);
+		}
+
+		// Find the candidates: storages that changed since the last tick, or all of them on a full scan
+		Long2ObjectOpenHashMap<LongArrayList> candidatesByChunk = new Long2ObjectOpenHashMap<>();
+		for (Long2ObjectMap.Entry<ExperienceStorage> entry : Long2ObjectMaps.fastIterable(storages)) {
+			long pos = entry.getLongKey();
+			ExperienceStorage storage = entry.getValue();
+			long amount = storage.getAmount();
+			long capacity = storage.getCapacity();
+
+			boolean changed = lastAmounts.put(pos, amount) != amount | lastCapacities.put(pos, capacity) != capacity;
+			if (changed || fullScan) {
+				addCandidate(candidatesByChunk, pos);
+			}
+		}
+		LongIterator removedIterator = removed.iterator();
+		while (removedIterator.hasNext()) {
+			addCandidate(candidatesByChunk, removedIterator.nextLong());
+		}
+		removed.clear();
+
+		// Queue what each tracking player has not seen yet
+		for (Long2ObjectMap.Entry<LongArrayList> chunkEntry : Long2ObjectMaps.fastIterable(candidatesByChunk)) {
+			Collection<ServerPlayerEntity> players = PlayerLookup.tracking(world, new ChunkPos(chunkEntry.getLongKey()));
+			if (players.isEmpty()) {
+				continue;
+			}
+
+			LongArrayList positions = chunkEntry.getValue();
+			for (ServerPlayerEntity player : players) {
+				ExperienceSyncSession session = getSession(player.getUuid(), world.getRegistryKey());
+				touched.put(session, player);
+
+				for (int i = 0; i < positions.size(); i++) {
+					long pos = positions.getLong(i);
+					if (storages.containsKey(pos)) {
+						session.update(pos, lastAmounts.get(pos), lastCapacities.get(pos));
+					} else {
+						session.remove(pos);
+					}
+				}
+			}
+		}
+
+		for (Map.Entry<ExperienceSyncSession, ServerPlayerEntity> entry : touched.entrySet()) {
+			PacketByteBuf buf = entry.getKey().flush();
+			if (buf != null) {
+				ServerPlayNetworking.send(entry.getValue(), PACKET_ID, buf);
+			}
+		}
+	}
+
+	/**
+	 * Make players forget storages in chunks they no longer track, or whose storage was removed.
+	 */
+	private void prune(Map<ExperienceSyncSession, ServerPlayerEntity> touched) {
+		Long2ObjectOpenHashMap<Collection<ServerPlayerEntity>> trackingByChunk = new Long2ObjectOpenHashMap<>();
+		for (ServerPlayerEntity player : world.getPlayers()) {
+			ExperienceSyncSession session = SESSIONS.get(player.getUuid());
+			if (session == null || session.getWorldKey() != world.getRegistryKey()) {
+				continue;
+			}
+
+			boolean pruned = session.removeIf(pos -> {
+				if (!storages.containsKey(pos)) {
+					return true;
+				}
+				Collection<ServerPlayerEntity> tracking = trackingByChunk.computeIfAbsent(getChunk(pos), c -> PlayerLookup.tracking(world, new ChunkPos(c)));
+				return !tracking.contains(player);
+			});
+			if (pruned) {
+				touched.put(session, player);
+			}
+		}
+	}
+
+	private static long getChunk(long pos) {
+		return ChunkPos.toLong(BlockPos.unpackLongX(pos) >> 4, BlockPos.unpackLongZ(pos) >> 4);
+	}
+
+	private static void addCandidate(Long2ObjectOpenHashMap<LongArrayList> candidatesByChunk, long pos) {
+		candidatesByChunk.computeIfAbsent(getChunk(pos), c -> new LongArrayList()).add(pos);
+	}
+
+	/**
+	 * @return The session of the connection of the player with the passed UUID, started over if the player changed worlds.
+	 */
+	@ApiStatus.Internal
+	public static ExperienceSyncSession getSession(UUID playerUuid, RegistryKey<World> worldKey) {
+		ExperienceSyncSession session = SESSIONS.get(playerUuid);
+		if (session == null) {
+			session = new ExperienceSyncSession(worldKey);
+			SESSIONS.put(playerUuid, session);
+		} else if (session.getWorldKey() != worldKey) {
+			session.reset(worldKey);
+		}
+		return session;
+	}
+
+	@ApiStatus.Internal
+	public static void onEndWorldTick(ServerWorld world) {
+		ExperienceStorageSync sync = SYNCS.get(world);
+		if (sync != null) {
+			world.getProfiler().push("experience_storage_sync");
+			sync.tick();
+			world.getProfiler().pop();
+		}
+	}
+
+	@ApiStatus.Internal
+	public static void onWorldUnload(ServerWorld world) {
+		SYNCS.remove(world);
+	}
+
+	@ApiStatus.Internal
+	public static void onPlayerDisconnect(UUID playerUuid) {
+		SESSIONS.remove(playerUuid);
+	}
+}
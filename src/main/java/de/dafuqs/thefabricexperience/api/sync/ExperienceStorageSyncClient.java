@@ -0,0 +1,114 @@
+package de.dafuqs.thefabricexperience.api.sync;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.impl.sync.*;
+import net.fabricmc.api.*;
+import net.fabricmc.fabric.api.client.networking.v1.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * The client side of {@link ExperienceStorageSync}: the amounts and capacities of the storages the server synced to this client.
+ *
+ * <p>Values belong to the world the player is currently in, and are forgotten when the player changes worlds or disconnects.
+ * Respawning in the same world keeps them, just like the server does.
+ * The server also tells the client to forget storages that were removed, or whose chunk the player stopped tracking.
+ * Block entities can return {@link #getStorage} from their client side lookup, so code like renderers can read them as usual.
+ *
+ * <p>Only usable on the client thread.
+ */
+@Environment(EnvType.CLIENT)
+@SuppressWarnings({"unused", "UnstableApiUsage"})
+public final class ExperienceStorageSyncClient {
+	private static final ExperienceSyncState STATE = new ExperienceSyncState();
+
+	private ExperienceStorageSyncClient() {
+	}
+
+	/**
+	 * @return If the server synced a storage at the passed position.
+	 */
+	public static boolean isSynced(BlockPos pos) {
+		return STATE.contains(pos.asLong());
+	}
+
+	/**
+	 * @return The synced amount of the storage at the passed position, or 0 if there is none.
+	 */
+	public static long getAmount(BlockPos pos) {
+		return STATE.getAmount(pos.asLong());
+	}
+
+	/**
+	 * @return The synced capacity of the storage at the passed position, or 0 if there is none.
+	 */
+	public static long getCapacity(BlockPos pos) {
+		return STATE.getCapacity(pos.asLong());
+	}
+
+	/**
+	 * @return A read only storage that always returns the latest synced values of the passed position.
+	 */
+	public static ExperienceStorage getStorage(BlockPos pos) {
+		return new SyncedStorage(pos.asLong());
+	}
+
+	@ApiStatus.Internal
+	public static void register() {
+		// Decoded on the network thread, as the buffer is only valid during the call. Applied on the client thread.
+		ClientPlayNetworking.registerGlobalReceiver(ExperienceStorageSync.PACKET_ID, (client, handler, buf, responseSender) -> {
+			ExperienceSyncState.Update update = ExperienceSyncState.decode(buf);
+			client.execute(() -> STATE.apply(update));
+		});
+		ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(STATE::clear));
+	}
+
+	private record SyncedStorage(long pos) implements ExperienceStorage {
+
+		@Override
+		public boolean supportsInsertion() {
+			return false;
+		}
+
+		@Override
+		public long insert(long maxAmount, TransactionContext transaction) {
+			return 0;
+		}
+
+		@Override
+		public boolean supportsExtraction() {
+			return false;
+		}
+
+		@Override
+		public long extract(long maxAmount, TransactionContext transaction) {
+			return 0;
+		}
+
+		@Override
+		public boolean hasExactSimulation() {
+			return true;
+		}
+
+		@Override
+		public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+			return 0;
+		}
+
+		@Override
+		public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+			return 0;
+		}
+
+		@Override
+		public long getAmount() {
+			return STATE.getAmount(pos);
+		}
+
+		@Override
+		public long getCapacity() {
+			return STATE.getCapacity(pos);
+		}
+	}
+}
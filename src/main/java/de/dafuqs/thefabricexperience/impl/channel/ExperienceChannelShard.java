@@ -0,0 +1,127 @@
+package de.dafuqs.thefabricexperience.impl.channel;
+
+import it.unimi.dsi.fastutil.objects.*;
+import net.minecraft.nbt.*;
+import net.minecraft.util.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+import org.slf4j.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+/**
+ * One of the shards the experience channels are split into by the hash of their key.
+ *
+ * <p>Each shard is a separate {@link PersistentState}, so a world save only writes the shards whose channels changed.
+ * The amounts of the shard are copied on the server thread, and then encoded and written on the IO worker.
+ * Writes of the same shard are chained, so they can never overtake each other.
+ * A failed write marks the shard dirty again, so the next save retries it.
+ */
+@ApiStatus.Internal
+public class ExperienceChannelShard extends PersistentState {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("TheFabricExperience Channels");
+	private static final String KEYS_KEY = "keys";
+	private static final String AMOUNTS_KEY = "amounts";
+
+	public final Object2LongOpenHashMap<String> amounts = new Object2LongOpenHashMap<>();
+	private CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+	private volatile boolean writeFailed = false;
+
+	public static ExperienceChannelShard read(NbtCompound nbt) {
+		ExperienceChannelShard shard = new ExperienceChannelShard();
+		NbtList keys = nbt.getList(KEYS_KEY, NbtElement.STRING_TYPE);
+		long[] amounts = nbt.getLongArray(AMOUNTS_KEY);
+		int count = Math.min(keys.size(), amounts.length);
+		for (int i = 0; i < count; i++) {
+			if (amounts[i] > 0) {
+				shard.amounts.put(keys.getString(i), amounts[i]);
+			}
+		}
+		return shard;
+	}
+
+	/**
+	 * Read a shard file written by {@link #save}. Safe to call from any thread.
+	 */
+	public static ExperienceChannelShard load(Path file) {
+		if (!Files.exists(file)) {
+			return new ExperienceChannelShard();
+		}
+		try {
+			return read(NbtIo.readCompressed(file.toFile()).getCompound("data"));
+		} catch (IOException e) {
+			LOGGER.error("Could not load experience channels from " + file, e);
+			return new ExperienceChannelShard();
+		}
+	}
+
+	@Override
+	public NbtCompound writeNbt(NbtCompound nbt) {
+		String[] keys = amounts.keySet().toArray(new String[0]);
+		long[] values = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			values[i] = amounts.getLong(keys[i]);
+		}
+		return write(nbt, keys, values);
+	}
+
+	private static NbtCompound write(NbtCompound nbt, String[] keys, long[] values) {
+		NbtList keyList = new NbtList();
+		for (String key : keys) {
+			keyList.add(NbtString.of(key));
+		}
+		nbt.put(KEYS_KEY, keyList);
+		nbt.putLongArray(AMOUNTS_KEY, values);
+		return nbt;
+	}
+
+	@Override
+	public boolean isDirty() {
+		return super.isDirty() || writeFailed;
+	}
+
+	@Override
+	public void save(File file) {
+		if (!isDirty()) {
+			return;
+		}
+		// Only cleared here. Set again on the IO worker if this write fails
+		setDirty(false);
+		writeFailed = false;
+
+		// Copy on the server thread, everything else happens on the IO worker
+		String[] keys = new String[amounts.size()];
+		long[] values = new long[keys.length];
+		int i = 0;
+		for (Object2LongMap.Entry<String> entry : Object2LongMaps.fastIterable(amounts)) {
+			keys[i] = entry.getKey();
+			values[i] = entry.getLongValue();
+			i++;
+		}
+
+		pendingWrite = pendingWrite.thenRunAsync(() -> {
+			NbtCompound nbt = new NbtCompound();
+			nbt.put("data", write(new NbtCompound(), keys, values));
+			NbtHelper.putDataVersion(nbt);
+			try {
+				File tempFile = new File(file.getPath() + ".tmp");
+				NbtIo.writeCompressed(nbt, tempFile);
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				LOGGER.error("Could not save experience channels to " + file, e);
+				writeFailed = true;
+			}
+		}, Util.getIoWorkerExecutor());
+	}
+
+	/**
+	 * Block until all started writes of this shard are finished.
+	 */
+	public void awaitWrites() {
+		pendingWrite.join();
+	}
+
+}
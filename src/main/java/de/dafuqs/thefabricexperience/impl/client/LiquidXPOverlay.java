@@ -0,0 +1,101 @@
+package de.dafuqs.thefabricexperience.impl.client;
+
+import com.mojang.blaze3d.systems.*;
+import de.dafuqs.thefabricexperience.*;
+import de.dafuqs.thefabricexperience.api.fluid.*;
+import net.fabricmc.api.*;
+import net.minecraft.client.*;
+import net.minecraft.client.gl.*;
+import net.minecraft.client.network.*;
+import net.minecraft.client.render.*;
+import net.minecraft.client.util.math.*;
+import net.minecraft.util.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * Renders the overlay shown while the player is submerged in liquid xp.
+ *
+ * <p>Whether the player is submerged is only checked once per client tick.
+ * The overlay quad lives in a persistent vertex buffer, which only gets uploaded again when the texture offset
+ * (that follows the rotation of the player) changes. Looking around while submerged costs one upload per frame,
+ * everything else is a single draw call.
+ */
+@ApiStatus.Internal
+@Environment(EnvType.CLIENT)
+public class LiquidXPOverlay {
+
+	private static final Identifier FLUID_OVERLAY_ID = new Identifier(TheFabricExperience.MOD_ID, "textures/liquid_xp_overlay.png");
+	private static final float ALPHA = 0.25F;
+
+	private static boolean submerged;
+	private static int textureGlId = -1;
+
+	private static @Nullable VertexBuffer vertexBuffer;
+	private static float uploadedU = Float.NaN;
+	private static float uploadedV = Float.NaN;
+	private static final Matrix4f MODEL_VIEW_MATRIX = new Matrix4f();
+
+	public static void onEndClientTick(MinecraftClient client) {
+		ClientPlayerEntity player = client.player;
+		submerged = player != null && !player.isSpectator() && player.isSubmergedIn(LiquidXP.EXPERIENCE);
+	}
+
+	/**
+	 * The overlay texture is looked up again on the next frame after resources are reloaded
+	 */
+	public static void onResourceReload() {
+		textureGlId = -1;
+	}
+
+	public static boolean isSubmerged() {
+		return submerged;
+	}
+
+	public static void render(MinecraftClient client, MatrixStack matrixStack) {
+		float u = -client.player.getYaw() / 64.0F;
+		float v = client.player.getPitch() / 64.0F;
+		if (vertexBuffer == null) {
+			vertexBuffer = new VertexBuffer();
+		}
+		if (u != uploadedU || v != uploadedV) {
+			upload(vertexBuffer, u, v);
+			uploadedU = u;
+			uploadedV = v;
+		}
+
+		if (textureGlId == -1) {
+			textureGlId = client.getTextureManager().getTexture(FLUID_OVERLAY_ID).getGlId();
+		}
+
+		RenderSystem.enableTexture();
+		RenderSystem.setShaderTexture(0, textureGlId);
+		float brightness = client.player.getBrightnessAtEyes();
+		RenderSystem.enableBlend();
+		RenderSystem.defaultBlendFunc();
+		RenderSystem.setShaderColor(brightness, brightness, brightness, ALPHA);
+
+		MODEL_VIEW_MATRIX.load(RenderSystem.getModelViewMatrix());
+		MODEL_VIEW_MATRIX.multiply(matrixStack.peek().getPositionMatrix());
+
+		vertexBuffer.bind();
+		vertexBuffer.draw(MODEL_VIEW_MATRIX, RenderSystem.getProjectionMatrix(), GameRenderer.getPositionTexShader());
+		VertexBuffer.unbind();
+
+		RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+		RenderSystem.disableBlend();
+	}
+
+	private static void upload(VertexBuffer vertexBuffer, float u, float v) {
+		BufferBuilder bufferBuilder = Tessellator.getInstance().getBuffer();
+		bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+		bufferBuilder.vertex(-1.0F, -1.0F, -0.5F).texture(4.0F + u, 4.0F + v).next();
+		bufferBuilder.vertex(1.0F, -1.0F, -0.5F).texture(0.0F + u, 4.0F + v).next();
+		bufferBuilder.vertex(1.0F, 1.0F, -0.5F).texture(0.0F + u, 0.0F + v).next();
+		bufferBuilder.vertex(-1.0F, 1.0F, -0.5F).texture(4.0F + u, 0.0F + v).next();
+		vertexBuffer.bind();
+		vertexBuffer.upload(bufferBuilder.end());
+		VertexBuffer.unbind();
+	}
+
+}
@@ -0,0 +1,103 @@
+package de.dafuqs.thefabricexperience.impl.config;
+
+import de.dafuqs.thefabricexperience.*;
+import net.fabricmc.loader.api.*;
+import net.minecraft.util.*;
+import net.minecraft.util.registry.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+import org.slf4j.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The server side settings of The Fabric Experience, read from {@code config/thefabricexperience.properties}.
+ *
+ * <p>Every setting can be overridden per dimension by appending the dimension id to its key,
+ * with the colon replaced by a dot: {@code liquid_xp.tick_rate.minecraft.the_nether=10}.
+ * The file is only read, and created with the default values if missing, when a server starts,
+ * so clients that only join remote servers never touch it. Until then, the default values apply.
+ */
+@ApiStatus.Internal
+public class TheFabricExperienceConfig {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("TheFabricExperience Config");
+	private static final String FILE_NAME = TheFabricExperience.MOD_ID + ".properties";
+
+	public static final String LIQUID_XP_TICK_RATE = "liquid_xp.tick_rate";
+	public static final String LIQUID_XP_FLOW_SPEED = "liquid_xp.flow_speed";
+	public static final String LIQUID_XP_LEVEL_DECREASE_PER_BLOCK = "liquid_xp.level_decrease_per_block";
+	public static final String LIQUID_XP_FLOW_BUDGET = "liquid_xp.flow_budget";
+	public static final String LIQUID_XP_FLOW_BUDGET_TARGET_MSPT = "liquid_xp.flow_budget.target_mspt";
+	public static final String METRICS_ENABLED = "metrics.enabled";
+
+	private static final Properties DEFAULTS = new Properties();
+
+	static {
+		DEFAULTS.setProperty(LIQUID_XP_TICK_RATE, "5");
+		DEFAULTS.setProperty(LIQUID_XP_FLOW_SPEED, "2");
+		DEFAULTS.setProperty(LIQUID_XP_LEVEL_DECREASE_PER_BLOCK, "2");
+		DEFAULTS.setProperty(LIQUID_XP_FLOW_BUDGET, "1024");
+		DEFAULTS.setProperty(LIQUID_XP_FLOW_BUDGET_TARGET_MSPT, "40");
+		DEFAULTS.setProperty(METRICS_ENABLED, "false");
+	}
+
+	private static volatile Properties properties = new Properties(DEFAULTS);
+
+	public static void load() {
+		Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+		Properties loaded = new Properties(DEFAULTS);
+
+		if (Files.exists(path)) {
+			try (Reader reader = Files.newBufferedReader(path)) {
+				loaded.load(reader);
+			} catch (IOException e) {
+				LOGGER.error("Could not read " + path + ", using the default values", e);
+			}
+		} else {
+			try (Writer writer = Files.newBufferedWriter(path)) {
+				DEFAULTS.store(writer, """
+						The Fabric Experience server settings
+						Every setting can be overridden per dimension by appending the dimension id with the colon replaced by a dot, like liquid_xp.tick_rate.minecraft.the_nether=10
+						liquid_xp.tick_rate: ticks between two flow updates of liquid xp
+						liquid_xp.flow_speed: how far liquid xp searches for holes to flow into
+						liquid_xp.level_decrease_per_block: how much the level of liquid xp drops per block it flows
+						liquid_xp.flow_budget: liquid xp flow updates per tick and world before further updates are deferred. 0 disables the budget
+						liquid_xp.flow_budget.target_mspt: above this mspt, the flow budget is reduced. Far below it, deferred updates are caught up faster
+						metrics.enabled: collect experience transfer metrics from the start, shown by /xpstats. Can also be toggled with /xpstats enable""");
+			} catch (IOException e) {
+				LOGGER.error("Could not write the default config to " + path, e);
+			}
+		}
+
+		properties = loaded;
+	}
+
+	public static boolean getBoolean(String key) {
+		return Boolean.parseBoolean(properties.getProperty(key).trim());
+	}
+
+	/**
+	 * @return The value of the setting for the passed dimension, falling back to the global value and the default.
+	 */
+	public static int getInt(String key, @Nullable RegistryKey<World> dimension) {
+		String value = null;
+		if (dimension != null) {
+			Identifier id = dimension.getValue();
+			value = properties.getProperty(key + "." + id.getNamespace() + "." + id.getPath());
+		}
+		if (value == null) {
+			value = properties.getProperty(key);
+		}
+
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid value '{}' for {}, using the default", value, key);
+			return Integer.parseInt(DEFAULTS.getProperty(key));
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package de.dafuqs.thefabricexperience.impl.fluid;
+
+import de.dafuqs.thefabricexperience.impl.config.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.registry.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Limits how many liquid xp flow updates run per tick and world.
+ *
+ * <p>Updates over the budget are deferred to the next tick instead of being dropped, so a burst (like a broken tank)
+ * spreads over multiple ticks instead of cascading into thousands of updates at once.
+ * The budget shrinks while the server is above the configured target mspt,
+ * and grows while it is idle and there is a backlog of deferred updates to catch up on.
+ */
+@ApiStatus.Internal
+public class LiquidXPFlowBudget {
+
+	private static final Map<RegistryKey<World>, Settings> SETTINGS = new ConcurrentHashMap<>();
+	private static volatile @Nullable Settings defaultSettings;
+	private static final Map<ServerWorld, LiquidXPFlowBudget> BUDGETS = new HashMap<>();
+
+	private final Settings settings;
+	private long remaining;
+	private long deferredLastTick;
+	private long deferredThisTick;
+
+	private LiquidXPFlowBudget(Settings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * @return The flow settings of the dimension of the passed world, or the global ones if it is not a world.
+	 * Resolved on first use, so they always reflect the config that was loaded last.
+	 */
+	public static Settings getSettings(WorldView world) {
+		if (world instanceof World w) {
+			return SETTINGS.computeIfAbsent(w.getRegistryKey(), Settings::of);
+		}
+		Settings settings = defaultSettings;
+		if (settings == null) {
+			settings = Settings.of(null);
+			defaultSettings = settings;
+		}
+		return settings;
+	}
+
+	/**
+	 * Forget the resolved settings, so they are read from the config again.
+	 */
+	public static void onConfigLoaded() {
+		SETTINGS.clear();
+		defaultSettings = null;
+	}
+
+	/**
+	 * Take one flow update from the budget of this tick.
+	 *
+	 * @return false if the budget is used up, and the update should be deferred.
+	 */
+	public static boolean tryConsume(ServerWorld world) {
+		LiquidXPFlowBudget budget = BUDGETS.get(world);
+		if (budget == null || budget.settings.flowBudget <= 0) {
+			return true;
+		}
+
+		if (budget.remaining > 0) {
+			budget.remaining--;
+			return true;
+		}
+		budget.deferredThisTick++;
+		return false;
+	}
+
+	public static void onStartWorldTick(ServerWorld world) {
+		BUDGETS.computeIfAbsent(world, w -> new LiquidXPFlowBudget(getSettings(w))).startTick(world.getServer().getTickTime());
+	}
+
+	public static void onWorldUnload(ServerWorld world) {
+		BUDGETS.remove(world);
+		SETTINGS.remove(world.getRegistryKey());
+	}
+
+	private void startTick(float mspt) {
+		deferredLastTick = deferredThisTick;
+		deferredThisTick = 0;
+
+		long budget = settings.flowBudget;
+		int targetMspt = settings.targetMspt;
+		if (mspt > targetMspt) {
+			// Shrink proportionally to the overload, but always let a part of the updates through
+			remaining = Math.max(budget / 8, (long) (budget * (targetMspt / mspt)));
+		} else if (deferredLastTick > 0 && mspt < targetMspt / 2F) {
+			// Idle with a backlog: catch up
+			remaining = budget * 2;
+		} else {
+			remaining = budget;
+		}
+		remaining = Math.max(1, remaining);
+	}
+
+	public record Settings(int tickRate, int flowSpeed, int levelDecreasePerBlock, int flowBudget, int targetMspt) {
+
+		private static Settings of(@Nullable RegistryKey<World> dimension) {
+			return new Settings(
+					Math.max(1, TheFabricExperienceConfig.getInt(TheFabricExperienceConfig.LIQUID_XP_TICK_RATE, dimension)),
+					Math.max(1, TheFabricExperienceConfig.getInt(TheFabricExperienceConfig.LIQUID_XP_FLOW_SPEED, dimension)),
+					Math.max(1, TheFabricExperienceConfig.getInt(TheFabricExperienceConfig.LIQUID_XP_LEVEL_DECREASE_PER_BLOCK, dimension)),
+					TheFabricExperienceConfig.getInt(TheFabricExperienceConfig.LIQUID_XP_FLOW_BUDGET, dimension),
+					Math.max(1, TheFabricExperienceConfig.getInt(TheFabricExperienceConfig.LIQUID_XP_FLOW_BUDGET_TARGET_MSPT, dimension))
+			);
+		}
+
+	}
+
+}
@@ -7,6 +7,7 @@ import net.minecraft.block.entity.*;
 import net.minecraft.fluid.*;
 import net.minecraft.item.*;
 import net.minecraft.particle.*;
+import net.minecraft.server.world.*;
 import net.minecraft.sound.*;
 import net.minecraft.state.*;
 import net.minecraft.state.property.Properties;
@@ -77,17 +78,27 @@ public abstract class LiquidXPFluid extends FlowableFluid {
 	
 	@Override
 	protected int getFlowSpeed(WorldView worldView) {
-		return 2;
+		return LiquidXPFlowBudget.getSettings(worldView).flowSpeed();
 	}
 	
 	@Override
 	protected int getLevelDecreasePerBlock(WorldView worldView) {
-		return 2;
+		return LiquidXPFlowBudget.getSettings(worldView).levelDecreasePerBlock();
 	}
 	
 	@Override
 	public int getTickRate(WorldView worldView) {
-		return 5;
+		return LiquidXPFlowBudget.getSettings(worldView).tickRate();
+	}
+	
+	@Override
+	public void onScheduledTick(World world, BlockPos pos, FluidState state) {
+		// Over the flow budget of this tick: try again next tick
+		if (world instanceof ServerWorld serverWorld && !LiquidXPFlowBudget.tryConsume(serverWorld)) {
+			world.createAndScheduleFluidTick(pos, state.getFluid(), 1);
+			return;
+		}
+		super.onScheduledTick(world, pos, state);
 	}
 	
 	@Override
@@ -95,6 +106,46 @@ public abstract class LiquidXPFluid extends FlowableFluid {
 		return ParticleTypes.DRIPPING_WATER;
 	}
 	
+	/**
+	 * Return true if a fluid tick at this position could change anything:
+	 * either this fluid would update its own level, or it could flow into a neighboring block.
+	 * Settled fluid (like the inside of a still lake) does not need to be ticked on neighbor updates.
+	 * In doubt, this returns true.
+	 */
+	public boolean canChange(WorldView world, BlockPos pos, FluidState state) {
+		if (!state.isStill() && !getUpdatedState(world, pos, world.getBlockState(pos)).equals(state)) {
+			return true;
+		}
+		
+		if (couldFlowInto(world, pos.down())) {
+			return true;
+		}
+		
+		// Same as in FlowableFluid#flowToSides
+		int spreadLevel = state.get(FALLING) ? 7 : state.getLevel() - getLevelDecreasePerBlock(world);
+		if (spreadLevel > 0) {
+			for (Direction direction : Direction.Type.HORIZONTAL) {
+				if (couldFlowInto(world, pos.offset(direction))) {
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * A conservative version of the private FlowableFluid#canFlow checks: false only if this fluid definitely cannot flow there.
+	 * Neighboring liquid xp is never flowed into, it updates itself through getUpdatedState instead.
+	 */
+	private boolean couldFlowInto(WorldView world, BlockPos pos) {
+		BlockState state = world.getBlockState(pos);
+		if (matchesType(state.getFluidState().getFluid())) {
+			return false;
+		}
+		return state.getBlock() instanceof FluidFillable || !state.getMaterial().blocksMovement();
+	}
+	
 	public static class Flowing extends LiquidXPFluid {
 		
 		@Override
@@ -4,6 +4,7 @@ import net.minecraft.block.*;
 import net.minecraft.entity.*;
 import net.minecraft.entity.ai.pathing.*;
 import net.minecraft.fluid.*;
+import net.minecraft.server.world.*;
 import net.minecraft.util.math.*;
 import net.minecraft.util.math.random.*;
 import net.minecraft.world.*;
@@ -16,7 +17,7 @@ public class LiquidXPFluidBlock extends FluidBlock {
 	
 	@Override
 	public void onBlockAdded(BlockState state, World world, BlockPos pos, BlockState oldState, boolean notify) {
-		if (this.receiveNeighborFluids(world, pos, state)) {
+		if (this.shouldScheduleFluidTick(world, pos, state)) {
 			world.createAndScheduleFluidTick(pos, state.getFluidState().getFluid(), this.fluid.getTickRate(world));
 		}
 	}
@@ -24,6 +25,10 @@ public class LiquidXPFluidBlock extends FluidBlock {
 	@Override
 	public void onEntityCollision(BlockState state, World world, BlockPos pos, Entity entity) {
 		super.onEntityCollision(state, world, pos, entity);
+		
+		if (world instanceof ServerWorld serverWorld && entity instanceof ExperienceOrbEntity orb && !orb.isRemoved()) {
+			LiquidXPOrbAbsorber.queue(serverWorld, pos, orb);
+		}
 	}
 	
 	@Override
@@ -33,7 +38,7 @@ public class LiquidXPFluidBlock extends FluidBlock {
 	
 	@Override
 	public void neighborUpdate(BlockState state, World world, BlockPos pos, Block block, BlockPos fromPos, boolean notify) {
-		if (this.receiveNeighborFluids(world, pos, state)) {
+		if (this.shouldScheduleFluidTick(world, pos, state)) {
 			world.createAndScheduleFluidTick(pos, state.getFluidState().getFluid(), this.fluid.getTickRate(world));
 		}
 	}
@@ -43,8 +48,16 @@ public class LiquidXPFluidBlock extends FluidBlock {
 		return true;
 	}
 	
-	private boolean receiveNeighborFluids(World world, BlockPos pos, BlockState state) {
-		return true;
+	/**
+	 * Liquid xp does not interact with other fluids, so a tick is only needed if it could flow or change its level.
+	 * Ticks that are already pending are not scheduled again.
+	 */
+	private boolean shouldScheduleFluidTick(World world, BlockPos pos, BlockState state) {
+		FluidState fluidState = state.getFluidState();
+		if (world.getFluidTickScheduler().isQueued(pos, fluidState.getFluid())) {
+			return false;
+		}
+		return !(this.fluid instanceof LiquidXPFluid liquidXPFluid) || liquidXPFluid.canChange(world, pos, fluidState);
 	}
 	
 }
@@ -0,0 +1,128 @@
+package de.dafuqs.thefabricexperience.impl.fluid;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import de.dafuqs.thefabricexperience.mixin.*;
+import it.unimi.dsi.fastutil.longs.*;
+import it.unimi.dsi.fastutil.objects.*;
+import net.minecraft.entity.*;
+import net.minecraft.server.world.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Collects the experience orbs touching liquid xp blocks during a tick, and absorbs them per block at the end of the world tick.
+ *
+ * <p>For each block, the experience of all orbs touching it is offered to the adjacent {@link ExperienceStorage}s
+ * through {@link ExperienceStorage#SIDED} in a single transaction, and the credited orbs are discarded.
+ * Whatever could not be credited is kept in the pool merged into as few orbs as possible, so a whole kill chamber drop
+ * usually ends up as a single orb entity per block.
+ * The neighbor lookups of blocks that keep absorbing orbs are cached, so orbs that cannot be credited stay cheap.
+ */
+@ApiStatus.Internal
+public class LiquidXPOrbAbsorber {
+
+	private static final Map<ServerWorld, LiquidXPOrbAbsorber> ABSORBERS = new HashMap<>();
+
+	private final Long2ObjectOpenHashMap<List<ExperienceOrbEntity>> pendingOrbs = new Long2ObjectOpenHashMap<>();
+	private final ReferenceOpenHashSet<ExperienceOrbEntity> queuedOrbs = new ReferenceOpenHashSet<>();
+	private final Long2ObjectOpenHashMap<ExperienceNeighborCache> neighborCaches = new Long2ObjectOpenHashMap<>();
+
+	public static void queue(ServerWorld world, BlockPos pos, ExperienceOrbEntity orb) {
+		ABSORBERS.computeIfAbsent(world, w -> new LiquidXPOrbAbsorber()).queue(pos, orb);
+	}
+
+	public static void onEndWorldTick(ServerWorld world) {
+		LiquidXPOrbAbsorber absorber = ABSORBERS.get(world);
+		if (absorber != null && !absorber.pendingOrbs.isEmpty()) {
+			world.getProfiler().push("liquid_xp_orb_absorption");
+			absorber.absorb(world);
+			world.getProfiler().pop();
+		}
+	}
+
+	public static void onWorldUnload(ServerWorld world) {
+		ABSORBERS.remove(world);
+	}
+
+	private void queue(BlockPos pos, ExperienceOrbEntity orb) {
+		// An orb can touch multiple blocks at once. It only gets absorbed by the first one.
+		if (queuedOrbs.add(orb)) {
+			pendingOrbs.computeIfAbsent(pos.asLong(), p -> new ArrayList<>()).add(orb);
+		}
+	}
+
+	private void absorb(ServerWorld world) {
+		for (Long2ObjectMap.Entry<List<ExperienceOrbEntity>> entry : pendingOrbs.long2ObjectEntrySet()) {
+			long pos = entry.getLongKey();
+			List<ExperienceOrbEntity> orbs = entry.getValue();
+
+			long total = 0;
+			for (ExperienceOrbEntity orb : orbs) {
+				if (!orb.isRemoved()) {
+					total += getValue(orb);
+				}
+			}
+			if (total == 0) {
+				continue;
+			}
+
+			ExperienceNeighborCache neighbors = neighborCaches.computeIfAbsent(pos, p -> ExperienceNeighborCache.create(world, BlockPos.fromLong(p)));
+			long credited = 0;
+			if (!neighbors.findAll().isEmpty()) {
+				SimpleExperienceStorage orbExperience = new SimpleExperienceStorage(total, 0, total);
+				orbExperience.amount = total;
+				credited = neighbors.pushToNeighbors(orbExperience, total, ExperienceTransferStrategy.FILL_FIRST, null);
+			}
+
+			settle(world, orbs, total - credited);
+		}
+
+		// Only keep the caches of blocks that are still absorbing orbs
+		neighborCaches.keySet().retainAll(pendingOrbs.keySet());
+		pendingOrbs.clear();
+		queuedOrbs.clear();
+	}
+
+	/**
+	 * Merge the remaining experience into as few of the orbs as possible, and discard the others.
+	 * A single orb holds at most {@link Integer#MAX_VALUE}, anything beyond that is spread over further orbs.
+	 */
+	private static void settle(ServerWorld world, List<ExperienceOrbEntity> orbs, long remaining) {
+		ExperienceOrbEntity lastKept = null;
+
+		for (ExperienceOrbEntity orb : orbs) {
+			if (orb.isRemoved()) {
+				continue;
+			}
+
+			if (remaining == 0) {
+				orb.discard();
+			} else {
+				int value = (int) Math.min(Integer.MAX_VALUE, remaining);
+				setValue(orb, value);
+				remaining -= value;
+				lastKept = orb;
+			}
+		}
+
+		// Only if orbs held more than an int each through their picking count
+		while (remaining > 0 && lastKept != null) {
+			int value = (int) Math.min(Integer.MAX_VALUE, remaining);
+			world.spawnEntity(new ExperienceOrbEntity(world, lastKept.getX(), lastKept.getY(), lastKept.getZ(), value));
+			remaining -= value;
+		}
+	}
+
+	private static long getValue(ExperienceOrbEntity orb) {
+		return (long) orb.getExperienceAmount() * ((ExperienceOrbEntityAccessor) orb).getPickingCount();
+	}
+
+	private static void setValue(ExperienceOrbEntity orb, int value) {
+		((ExperienceOrbEntityAccessor) orb).setAmount(value);
+		((ExperienceOrbEntityAccessor) orb).setPickingCount(1);
+	}
+
+}
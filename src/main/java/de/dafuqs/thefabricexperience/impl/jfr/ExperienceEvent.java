@@ -0,0 +1,25 @@
+package de.dafuqs.thefabricexperience.impl.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * Common fields of the experience JFR events.
+ */
+@ApiStatus.Internal
+@Category({"The Fabric Experience", "Experience"})
+@StackTrace(false)
+public abstract class ExperienceEvent extends Event {
+
+	@Label("Amount")
+	public long amount;
+
+	@Label("Transaction Depth")
+	@Description("Nesting depth of the transaction the operation ran in, -1 if it opened its own outer transaction")
+	public int transactionDepth;
+
+	@Label("Outcome")
+	@Description("committed if the operation and all its enclosing transactions were committed, aborted if one of them was aborted, noop if the operation changed nothing")
+	public String outcome;
+
+}
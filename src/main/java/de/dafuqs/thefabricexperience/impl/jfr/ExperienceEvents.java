@@ -0,0 +1,124 @@
+package de.dafuqs.thefabricexperience.impl.jfr;
+
+import jdk.jfr.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.util.registry.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * Emits the experience JFR events.
+ *
+ * <p>Every {@code begin} method returns null without allocating anything while its event is not enabled in a running recording,
+ * and the matching {@code end} method must only be called with a non-null event.
+ * An event is only written once the outcome of the operation is known: if it ran in a transaction,
+ * that is when the transaction and all its enclosing ones are closed.
+ * Operations that did not change anything are written right away as {@code noop}, since no transaction can undo them.
+ */
+@ApiStatus.Internal
+@SuppressWarnings("UnstableApiUsage")
+public class ExperienceEvents {
+
+	private static final EventType TRANSFER = EventType.getEventType(ExperienceTransferEvent.class);
+	private static final EventType STORAGE = EventType.getEventType(ExperienceStorageEvent.class);
+	private static final EventType ITEM = EventType.getEventType(ItemExperienceEvent.class);
+
+	public static @Nullable ExperienceTransferEvent beginTransfer() {
+		if (!TRANSFER.isEnabled()) {
+			return null;
+		}
+		ExperienceTransferEvent event = new ExperienceTransferEvent();
+		event.begin();
+		return event;
+	}
+
+	public static void endTransfer(ExperienceTransferEvent event, @Nullable Object from, @Nullable Object to, long requestedAmount, long movedAmount, @Nullable TransactionContext transaction) {
+		event.end();
+		event.requestedAmount = requestedAmount;
+		event.amount = movedAmount;
+		event.sourceType = getTypeName(from);
+		event.targetType = getTypeName(to);
+		finish(event, movedAmount > 0, transaction);
+	}
+
+	public static @Nullable ExperienceStorageEvent beginStorageOperation() {
+		if (!STORAGE.isEnabled()) {
+			return null;
+		}
+		ExperienceStorageEvent event = new ExperienceStorageEvent();
+		event.begin();
+		return event;
+	}
+
+	public static void endInsert(ExperienceStorageEvent event, Object storage, long inserted, TransactionContext transaction) {
+		event.end();
+		event.operation = "insert";
+		event.amount = inserted;
+		event.targetType = getTypeName(storage);
+		finish(event, inserted > 0, transaction);
+	}
+
+	public static void endExtract(ExperienceStorageEvent event, Object storage, long extracted, TransactionContext transaction) {
+		event.end();
+		event.operation = "extract";
+		event.amount = extracted;
+		event.sourceType = getTypeName(storage);
+		finish(event, extracted > 0, transaction);
+	}
+
+	public static @Nullable ItemExperienceEvent beginItemUpdate() {
+		if (!ITEM.isEnabled()) {
+			return null;
+		}
+		ItemExperienceEvent event = new ItemExperienceEvent();
+		event.begin();
+		return event;
+	}
+
+	public static void endItemUpdate(ItemExperienceEvent event, ItemVariant variant, long experiencePerItem, long count, boolean success, TransactionContext transaction) {
+		event.end();
+		event.item = Registry.ITEM.getId(variant.getItem()).toString();
+		event.amount = experiencePerItem;
+		event.count = count;
+		finish(event, success, transaction);
+	}
+
+	private static String getTypeName(@Nullable Object object) {
+		return object == null ? "null" : object.getClass().getName();
+	}
+
+	/**
+	 * Write the event right away if the operation changed nothing or opened its own transaction,
+	 * or once the outcome of the enclosing transactions is known.
+	 */
+	private static void finish(ExperienceEvent event, boolean changed, @Nullable TransactionContext transaction) {
+		event.transactionDepth = transaction == null ? -1 : transaction.nestingDepth();
+		if (!changed) {
+			event.outcome = "noop";
+			event.commit();
+		} else if (transaction == null) {
+			event.outcome = "committed";
+			event.commit();
+		} else {
+			transaction.addCloseCallback(new OutcomeTracker(event));
+		}
+	}
+
+	/**
+	 * Follows a successful operation up the transaction stack, like {@code SnapshotParticipant} does with its snapshots.
+	 */
+	private record OutcomeTracker(ExperienceEvent event) implements TransactionContext.CloseCallback {
+
+		@Override
+		public void onClose(TransactionContext transaction, TransactionContext.Result result) {
+			if (result.wasCommitted() && transaction.nestingDepth() > 0) {
+				transaction.getOpenTransaction(transaction.nestingDepth() - 1).addCloseCallback(this);
+			} else {
+				event.outcome = result.wasCommitted() ? "committed" : "aborted";
+				event.commit();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,21 @@
+package de.dafuqs.thefabricexperience.impl.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.*;
+
+@ApiStatus.Internal
+@Name("thefabricexperience.ExperienceStorageOperation")
+@Label("Experience Storage Operation")
+@Description("An insertion into or extraction from a SimpleExperienceStorage")
+public class ExperienceStorageEvent extends ExperienceEvent {
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Source Type")
+	public String sourceType;
+
+	@Label("Target Type")
+	public String targetType;
+
+}
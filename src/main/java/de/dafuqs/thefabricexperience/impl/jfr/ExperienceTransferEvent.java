@@ -0,0 +1,21 @@
+package de.dafuqs.thefabricexperience.impl.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.*;
+
+@ApiStatus.Internal
+@Name("thefabricexperience.ExperienceTransfer")
+@Label("Experience Transfer")
+@Description("A move between two experience storages through ExperienceStorageUtil")
+public class ExperienceTransferEvent extends ExperienceEvent {
+
+	@Label("Requested Amount")
+	public long requestedAmount;
+
+	@Label("Source Type")
+	public String sourceType;
+
+	@Label("Target Type")
+	public String targetType;
+
+}
@@ -0,0 +1,18 @@
+package de.dafuqs.thefabricexperience.impl.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.*;
+
+@ApiStatus.Internal
+@Name("thefabricexperience.ItemExperienceUpdate")
+@Label("Item Experience Update")
+@Description("A change of the stored experience of an item stack. The amount is the new stored experience per item")
+public class ItemExperienceEvent extends ExperienceEvent {
+
+	@Label("Item")
+	public String item;
+
+	@Label("Count")
+	public long count;
+
+}
@@ -0,0 +1,217 @@
+package de.dafuqs.thefabricexperience.impl.metrics;
+
+import it.unimi.dsi.fastutil.objects.*;
+import net.minecraft.server.*;
+import net.minecraft.util.math.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Opt-in counters for experience transfers, shown by the {@code /xpstats} command.
+ *
+ * <p>When disabled (the default), every hook is a single static field read.
+ * When enabled, the hooks only bump plain counters. Those are rolled into a window of the last
+ * {@link #WINDOW_TICKS} ticks at the end of every server tick, and block positions are ranked by the amount of experience moved from or into them.
+ * The amounts of the positions are halved at the end of every window, so the ranking follows recent hot spots.
+ * Once more than {@link #MAX_TRACKED_POSITIONS} positions are tracked, the coldest ones are evicted, so new hot spots always get in.
+ *
+ * <p>The counters are meant to be updated from the server thread. Client side transfers of an integrated server may get lost, which is fine for statistics.
+ */
+@ApiStatus.Internal
+public class ExperienceMetrics {
+
+	public static final int WINDOW_TICKS = 100;
+	private static final int MAX_TRACKED_POSITIONS = 4096;
+
+	private static boolean enabled;
+
+	// Counters of the current tick
+	private static long tickTransfers, tickTransferred, tickTransactions, tickInserts, tickExtracts, tickItemUpdates;
+
+	// Window of the last ticks, indexed by tick % WINDOW_TICKS
+	private static final long[] windowTransfers = new long[WINDOW_TICKS];
+	private static final long[] windowTransferred = new long[WINDOW_TICKS];
+	private static final long[] windowTransactions = new long[WINDOW_TICKS];
+	private static long ticks;
+
+	// Totals since enabling or resetting
+	private static long totalTransfers, totalTransferred, totalTransactions, totalInserts, totalExtracts, totalItemUpdates;
+
+	private static final Object2LongOpenHashMap<GlobalPos> transferredByPos = new Object2LongOpenHashMap<>();
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		if (enabled && !ExperienceMetrics.enabled) {
+			reset();
+		}
+		ExperienceMetrics.enabled = enabled;
+	}
+
+	public static void reset() {
+		tickTransfers = tickTransferred = tickTransactions = tickInserts = tickExtracts = tickItemUpdates = 0;
+		totalTransfers = totalTransferred = totalTransactions = totalInserts = totalExtracts = totalItemUpdates = 0;
+		Arrays.fill(windowTransfers, 0);
+		Arrays.fill(windowTransferred, 0);
+		Arrays.fill(windowTransactions, 0);
+		ticks = 0;
+		transferredByPos.clear();
+	}
+
+	/**
+	 * A transfer through {@code ExperienceStorageUtil} finished, moving {@code amount} experience.
+	 */
+	public static void onTransfer(long amount) {
+		if (enabled) {
+			tickTransfers++;
+			tickTransferred += amount;
+		}
+	}
+
+	public static void onTransactionsOpened(int count) {
+		if (enabled) {
+			tickTransactions += count;
+		}
+	}
+
+	public static void onInsert() {
+		if (enabled) {
+			tickInserts++;
+		}
+	}
+
+	public static void onExtract() {
+		if (enabled) {
+			tickExtracts++;
+		}
+	}
+
+	/**
+	 * The stored experience of an item stack was changed.
+	 */
+	public static void onItemUpdate() {
+		if (enabled) {
+			tickItemUpdates++;
+		}
+	}
+
+	/**
+	 * Experience was moved from or into the block at the passed position.
+	 */
+	public static void onBlockTransfer(World world, BlockPos pos, long amount) {
+		if (enabled && amount > 0) {
+			transferredByPos.addTo(GlobalPos.create(world.getRegistryKey(), pos.toImmutable()), amount);
+			// Let the table grow to twice its size within a window, so evicting is rare
+			if (transferredByPos.size() > MAX_TRACKED_POSITIONS * 2) {
+				evictColdestPositions();
+			}
+		}
+	}
+
+	/**
+	 * Remove the positions with the least experience moved, until at most {@link #MAX_TRACKED_POSITIONS} are left.
+	 */
+	private static void evictColdestPositions() {
+		int excess = transferredByPos.size() - MAX_TRACKED_POSITIONS;
+		if (excess <= 0) {
+			return;
+		}
+		List<Object2LongMap.Entry<GlobalPos>> entries = new ArrayList<>(transferredByPos.object2LongEntrySet());
+		entries.sort(Comparator.comparingLong(Object2LongMap.Entry::getLongValue));
+		List<GlobalPos> coldest = new ArrayList<>(excess);
+		for (int i = 0; i < excess; i++) {
+			coldest.add(entries.get(i).getKey());
+		}
+		for (GlobalPos pos : coldest) {
+			transferredByPos.removeLong(pos);
+		}
+	}
+
+	/**
+	 * Halve the amounts of all positions, dropping those that reach 0, and evict the coldest ones.
+	 */
+	private static void agePositions() {
+		ObjectIterator<Object2LongMap.Entry<GlobalPos>> iterator = Object2LongMaps.fastIterator(transferredByPos);
+		while (iterator.hasNext()) {
+			Object2LongMap.Entry<GlobalPos> entry = iterator.next();
+			long halved = entry.getLongValue() / 2;
+			if (halved == 0) {
+				iterator.remove();
+			} else {
+				entry.setValue(halved);
+			}
+		}
+		evictColdestPositions();
+	}
+
+	public static void onEndServerTick(MinecraftServer server) {
+		if (!enabled) {
+			return;
+		}
+
+		int index = (int) (ticks % WINDOW_TICKS);
+		windowTransfers[index] = tickTransfers;
+		windowTransferred[index] = tickTransferred;
+		windowTransactions[index] = tickTransactions;
+		ticks++;
+		if (ticks % WINDOW_TICKS == 0) {
+			agePositions();
+		}
+
+		totalTransfers += tickTransfers;
+		totalTransferred += tickTransferred;
+		totalTransactions += tickTransactions;
+		totalInserts += tickInserts;
+		totalExtracts += tickExtracts;
+		totalItemUpdates += tickItemUpdates;
+
+		tickTransfers = tickTransferred = tickTransactions = tickInserts = tickExtracts = tickItemUpdates = 0;
+	}
+
+	public static Snapshot snapshot() {
+		long lastTransfers = 0, lastTransferred = 0, lastTransactions = 0;
+		double averageTransfers = 0, averageTransferred = 0, averageTransactions = 0;
+
+		if (ticks > 0) {
+			int last = (int) ((ticks - 1) % WINDOW_TICKS);
+			lastTransfers = windowTransfers[last];
+			lastTransferred = windowTransferred[last];
+			lastTransactions = windowTransactions[last];
+
+			int windowSize = (int) Math.min(ticks, WINDOW_TICKS);
+			for (int i = 0; i < windowSize; i++) {
+				averageTransfers += windowTransfers[i];
+				averageTransferred += windowTransferred[i];
+				averageTransactions += windowTransactions[i];
+			}
+			averageTransfers /= windowSize;
+			averageTransferred /= windowSize;
+			averageTransactions /= windowSize;
+		}
+
+		return new Snapshot(ticks, lastTransfers, lastTransferred, lastTransactions,
+				averageTransfers, averageTransferred, averageTransactions,
+				totalTransfers, totalTransferred, totalTransactions, totalInserts, totalExtracts, totalItemUpdates);
+	}
+
+	/**
+	 * @return The {@code count} positions with the most experience moved from or into them recently, highest first.
+	 */
+	public static List<Object2LongMap.Entry<GlobalPos>> getTopPositions(int count) {
+		List<Object2LongMap.Entry<GlobalPos>> entries = new ArrayList<>(transferredByPos.object2LongEntrySet());
+		entries.sort((a, b) -> Long.compare(b.getLongValue(), a.getLongValue()));
+		return entries.subList(0, Math.min(count, entries.size()));
+	}
+
+	public record Snapshot(long ticks,
+	                       long lastTransfers, long lastTransferred, long lastTransactions,
+	                       double averageTransfers, double averageTransferred, double averageTransactions,
+	                       long totalTransfers, long totalTransferred, long totalTransactions,
+	                       long totalInserts, long totalExtracts, long totalItemUpdates) {
+	}
+
+}
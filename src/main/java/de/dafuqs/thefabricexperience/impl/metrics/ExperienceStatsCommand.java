@@ -0,0 +1,84 @@
+package de.dafuqs.thefabricexperience.impl.metrics;
+
+import com.mojang.brigadier.*;
+import com.mojang.brigadier.arguments.*;
+import it.unimi.dsi.fastutil.objects.*;
+import net.minecraft.command.*;
+import net.minecraft.server.command.*;
+import net.minecraft.text.*;
+import net.minecraft.util.math.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+import static net.minecraft.server.command.CommandManager.*;
+
+/**
+ * {@code /xpstats [enable|disable|reset|top [count]]}: shows the counters of {@link ExperienceMetrics}.
+ */
+@ApiStatus.Internal
+public class ExperienceStatsCommand {
+
+	private static final int DEFAULT_TOP_COUNT = 10;
+
+	public static void register(CommandDispatcher<ServerCommandSource> dispatcher, CommandRegistryAccess registryAccess, RegistrationEnvironment environment) {
+		dispatcher.register(literal("xpstats")
+				.requires(source -> source.hasPermissionLevel(2))
+				.executes(context -> show(context.getSource()))
+				.then(literal("enable").executes(context -> setEnabled(context.getSource(), true)))
+				.then(literal("disable").executes(context -> setEnabled(context.getSource(), false)))
+				.then(literal("reset").executes(context -> reset(context.getSource())))
+				.then(literal("top")
+						.executes(context -> showTop(context.getSource(), DEFAULT_TOP_COUNT))
+						.then(argument("count", IntegerArgumentType.integer(1, 100))
+								.executes(context -> showTop(context.getSource(), IntegerArgumentType.getInteger(context, "count"))))));
+	}
+
+	private static int setEnabled(ServerCommandSource source, boolean enabled) {
+		ExperienceMetrics.setEnabled(enabled);
+		source.sendFeedback(Text.literal("Experience transfer metrics " + (enabled ? "enabled" : "disabled")), true);
+		return 1;
+	}
+
+	private static int reset(ServerCommandSource source) {
+		ExperienceMetrics.reset();
+		source.sendFeedback(Text.literal("Experience transfer metrics reset"), true);
+		return 1;
+	}
+
+	private static int show(ServerCommandSource source) {
+		if (!ExperienceMetrics.isEnabled()) {
+			source.sendFeedback(Text.literal("Experience transfer metrics are disabled. Enable them with /xpstats enable"), false);
+			return 0;
+		}
+
+		ExperienceMetrics.Snapshot snapshot = ExperienceMetrics.snapshot();
+		source.sendFeedback(Text.literal("Experience transfers over " + snapshot.ticks() + " ticks:"), false);
+		source.sendFeedback(Text.literal(String.format(Locale.ROOT, "Last tick: %d transfers, %d xp, %d transactions",
+				snapshot.lastTransfers(), snapshot.lastTransferred(), snapshot.lastTransactions())), false);
+		source.sendFeedback(Text.literal(String.format(Locale.ROOT, "Average of the last %d ticks: %.1f transfers, %.1f xp, %.1f transactions",
+				Math.min(snapshot.ticks(), ExperienceMetrics.WINDOW_TICKS), snapshot.averageTransfers(), snapshot.averageTransferred(), snapshot.averageTransactions())), false);
+		source.sendFeedback(Text.literal(String.format(Locale.ROOT, "Total: %d transfers, %d xp, %d transactions, %d storage inserts, %d storage extracts, %d item updates",
+				snapshot.totalTransfers(), snapshot.totalTransferred(), snapshot.totalTransactions(),
+				snapshot.totalInserts(), snapshot.totalExtracts(), snapshot.totalItemUpdates())), false);
+		return (int) Math.min(Integer.MAX_VALUE, snapshot.ticks());
+	}
+
+	private static int showTop(ServerCommandSource source, int count) {
+		List<Object2LongMap.Entry<GlobalPos>> top = ExperienceMetrics.getTopPositions(count);
+		if (top.isEmpty()) {
+			source.sendFeedback(Text.literal("No block transfers recorded"), false);
+			return 0;
+		}
+
+		source.sendFeedback(Text.literal("Blocks with the most experience moved recently, halved every " + ExperienceMetrics.WINDOW_TICKS + " ticks:"), false);
+		for (int i = 0; i < top.size(); i++) {
+			GlobalPos pos = top.get(i).getKey();
+			BlockPos blockPos = pos.getPos();
+			source.sendFeedback(Text.literal(String.format(Locale.ROOT, "%d. %s %d %d %d: %d xp",
+					i + 1, pos.getDimension().getValue(), blockPos.getX(), blockPos.getY(), blockPos.getZ(), top.get(i).getLongValue())), false);
+		}
+		return top.size();
+	}
+
+}
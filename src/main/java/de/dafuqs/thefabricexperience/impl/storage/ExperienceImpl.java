@@ -11,7 +11,7 @@ public class ExperienceImpl {
 	static {
 		ExperienceStorage.ITEM.registerFallback((stack, ctx) -> {
 			if (stack.getItem() instanceof SimpleExperienceStorageItem experienceStorageItem) {
-				return SimpleExperienceStorageItem.createStorage(ctx, experienceStorageItem.getExperienceCapacity(stack), experienceStorageItem.getMaxExperienceInput(stack), experienceStorageItem.getMaxExperienceOutput(stack));
+				return SimpleExperienceStorageItem.createStorage(ctx, experienceStorageItem.getExperienceCapacity(stack), experienceStorageItem.getMaxExperienceInput(stack), experienceStorageItem.getMaxExperienceOutput(stack), experienceStorageItem.getFillMode(stack));
 			} else {
 				return null;
 			}
@@ -39,6 +39,21 @@ public class ExperienceImpl {
 			return 0;
 		}
 
+		@Override
+		public boolean hasExactSimulation() {
+			return true;
+		}
+
+		@Override
+		public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+			return 0;
+		}
+
+		@Override
+		public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+			return 0;
+		}
+
 		@Override
 		public long getAmount() {
 			return 0;
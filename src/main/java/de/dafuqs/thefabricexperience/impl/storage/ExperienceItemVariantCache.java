@@ -0,0 +1,111 @@
+package de.dafuqs.thefabricexperience.impl.storage;
+
+import com.google.common.collect.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import it.unimi.dsi.fastutil.longs.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.minecraft.item.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Interns the item variants created when changing the {@code stored_xp} of an item.
+ * Variants are grouped by their base variant (the variant without any stored experience),
+ * so that repeatedly switching between the same amounts reuses the same instances instead of copying NBT every time.
+ *
+ * <p>Both levels are bounded LRU maps, so the cache never grows beyond a fixed size.
+ *
+ * <p>It also remembers the parsed {@code stored_xp} of variants, so reading it again is a lookup by identity instead of an NBT lookup.
+ * That map has weak keys, so it never keeps a variant alive.
+ */
+@ApiStatus.Internal
+@SuppressWarnings("UnstableApiUsage")
+public class ExperienceItemVariantCache {
+
+	private static final int MAX_KNOWN_VARIANTS = 1024;
+	private static final int MAX_AMOUNTS_PER_BASE = 64;
+
+	/**
+	 * Maps every variant seen so far, base or derived, to the family of its base variant.
+	 */
+	private static final Map<ItemVariant, Family> FAMILIES = new LinkedHashMap<>(64, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ItemVariant, Family> eldest) {
+			return size() > MAX_KNOWN_VARIANTS;
+		}
+	};
+
+	/**
+	 * Parsed stored experience by variant instance. Weak keys compare by identity, which is exactly what we want: no deep NBT comparison.
+	 */
+	private static final ConcurrentMap<ItemVariant, Long> STORED_EXPERIENCE = new MapMaker().weakKeys().makeMap();
+
+	/**
+	 * @return The experience stored in the passed variant, ignoring the count and without checking the item.
+	 */
+	public static long getStoredExperience(ItemVariant variant) {
+		Long known = STORED_EXPERIENCE.get(variant);
+		if (known != null) {
+			return known;
+		}
+
+		long storedExperience = SimpleExperienceStorageItem.getStoredExperienceUnchecked(variant.getNbt());
+		STORED_EXPERIENCE.put(variant, storedExperience);
+		return storedExperience;
+	}
+
+	/**
+	 * Return a variant equal to {@code variant}, but with {@code storedExperience} as its stored experience.
+	 */
+	public static ItemVariant withStoredExperience(ItemVariant variant, long storedExperience) {
+		synchronized (FAMILIES) {
+			Family family = FAMILIES.get(variant);
+			if (family == null) {
+				family = getOrCreateFamily(variant);
+			}
+
+			ItemVariant derived = family.byAmount.getAndMoveToLast(storedExperience);
+			if (derived == null) {
+				derived = create(family.base, storedExperience);
+				family.byAmount.putAndMoveToLast(storedExperience, derived);
+				if (family.byAmount.size() > MAX_AMOUNTS_PER_BASE) {
+					family.byAmount.removeFirst();
+				}
+				FAMILIES.put(derived, family);
+			}
+			return derived;
+		}
+	}
+
+	private static Family getOrCreateFamily(ItemVariant variant) {
+		ItemVariant base = create(variant, 0);
+		Family family = FAMILIES.get(base);
+		if (family == null) {
+			family = new Family(base);
+			family.byAmount.put(0, base);
+			FAMILIES.put(base, family);
+		}
+		FAMILIES.put(variant, family);
+		return family;
+	}
+
+	private static ItemVariant create(ItemVariant variant, long storedExperience) {
+		ItemStack stack = variant.toStack();
+		SimpleExperienceStorageItem.setStoredExperienceUnchecked(stack, storedExperience);
+		ItemVariant created = ItemVariant.of(stack);
+		STORED_EXPERIENCE.put(created, storedExperience);
+		return created;
+	}
+
+	private static final class Family {
+		private final ItemVariant base;
+		private final Long2ObjectLinkedOpenHashMap<ItemVariant> byAmount = new Long2ObjectLinkedOpenHashMap<>();
+
+		private Family(ItemVariant base) {
+			this.base = base;
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package de.dafuqs.thefabricexperience.impl.storage;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * Implemented by entities through mixins, to keep their {@link ExperienceStorage} on the entity itself.
+ * The storage lives and dies with the entity object, so respawned players or the client copy of an entity never share it.
+ */
+@ApiStatus.Internal
+public interface ExperienceStorageHolder {
+	
+	@Nullable ExperienceStorage thefabricexperience$getExperienceStorage();
+	
+	void thefabricexperience$setExperienceStorage(ExperienceStorage storage);
+	
+}
@@ -18,41 +18,30 @@ import org.jetbrains.annotations.*;
 public class FixedExtractOnlyItemExperienceStorageImpl implements ExperienceStorage {
 	
 	public static ExperienceStorage createSimpleStorage(ContainerItemContext ctx, long capacity) {
+		return createSimpleStorage(ctx, capacity, SimpleExperienceStorageItem.FillMode.EVEN);
+	}
+
+	public static ExperienceStorage createSimpleStorage(ContainerItemContext ctx, long capacity, SimpleExperienceStorageItem.FillMode fillMode) {
 		StoragePreconditions.notNegative(capacity);
 
 		Item startingItem = ctx.getItemVariant().getItem();
 
 		return new DelegatingExperienceStorage(
-				new FixedExtractOnlyItemExperienceStorageImpl(ctx, capacity),
+				new FixedExtractOnlyItemExperienceStorageImpl(ctx, capacity, fillMode),
 				() -> ctx.getItemVariant().isOf(startingItem) && ctx.getAmount() > 0
 		);
 	}
 
 	private final ContainerItemContext ctx;
 	private final long capacity;
+	private final SimpleExperienceStorageItem.FillMode fillMode;
+	private @Nullable ItemVariant lastVariant;
+	private long lastStoredExperience;
 
-	private FixedExtractOnlyItemExperienceStorageImpl(ContainerItemContext ctx, long capacity) {
+	private FixedExtractOnlyItemExperienceStorageImpl(ContainerItemContext ctx, long capacity, SimpleExperienceStorageItem.FillMode fillMode) {
 		this.ctx = ctx;
 		this.capacity = capacity;
-	}
-
-	/**
-	 * Try to set the experience of the stack to {@code experienceAmountPerCount}, return true if success.
-	 */
-	private boolean trySetExperience(long experienceAmountPerCount, long count, TransactionContext transaction) {
-		ItemStack newStack = ctx.getItemVariant().toStack();
-		SimpleExperienceStorageItem.setStoredExperienceUnchecked(newStack, experienceAmountPerCount);
-		ItemVariant newVariant = ItemVariant.of(newStack);
-
-		// Try to convert exactly `count` items.
-		try (Transaction nested = transaction.openNested()) {
-			if (ctx.extract(ctx.getItemVariant(), count, nested) == count && ctx.insert(newVariant, count, nested) == count) {
-				nested.commit();
-				return true;
-			}
-		}
-
-		return false;
+		this.fillMode = fillMode;
 	}
 
 	@Override
@@ -73,6 +62,14 @@ public class FixedExtractOnlyItemExperienceStorageImpl implements ExperienceStor
 	@Override
 	public long extract(long maxAmount, TransactionContext transaction) {
 		long count = ctx.getAmount();
+
+		if (fillMode == SimpleExperienceStorageItem.FillMode.SEQUENTIAL) {
+			long extracted = extractSequential(count, maxAmount, transaction);
+			if (extracted > 0) {
+				return extracted;
+			}
+			// The split did not fit into the context, drain evenly instead
+		}
 		
 		if(count > maxAmount) {
 			return 0;
@@ -80,10 +77,10 @@ public class FixedExtractOnlyItemExperienceStorageImpl implements ExperienceStor
 
 		long maxAmountPerCount = maxAmount / count;
 		long currentAmountPerCount = getAmount() / count;
-		long extractedCount = Math.min(maxAmountPerCount, currentAmountPerCount); //TODO: drain single items instead of each one partial
+		long extractedCount = Math.min(maxAmountPerCount, currentAmountPerCount);
 
 		if (extractedCount > 0) {
-			if (trySetExperience(currentAmountPerCount - extractedCount, count, transaction)) {
+			if (ItemExperienceUpdates.trySetExperience(ctx, currentAmountPerCount - extractedCount, count, transaction)) {
 				return extractedCount * count;
 			}
 		}
@@ -91,9 +88,39 @@ public class FixedExtractOnlyItemExperienceStorageImpl implements ExperienceStor
 		return 0;
 	}
 
+	private long extractSequential(long count, long maxAmount, TransactionContext transaction) {
+		long currentAmountPerCount = getAmount() / count;
+		if (currentAmountPerCount <= 0) {
+			return 0;
+		}
+
+		long drainedCount = Math.min(count, maxAmount / currentAmountPerCount);
+		long partialAmount = drainedCount < count ? maxAmount - drainedCount * currentAmountPerCount : 0;
+
+		if (drainedCount > 0 || partialAmount > 0) {
+			if (ItemExperienceUpdates.trySplitExperience(ctx, drainedCount, 0, partialAmount > 0, currentAmountPerCount - partialAmount, transaction)) {
+				return drainedCount * currentAmountPerCount + partialAmount;
+			}
+		}
+
+		return 0;
+	}
+
 	@Override
 	public long getAmount() {
-		return ctx.getAmount() * SimpleExperienceStorageItem.getStoredExperienceUnchecked(ctx.getItemVariant().getNbt());
+		return ctx.getAmount() * getStoredExperiencePerItem();
+	}
+
+	/**
+	 * Variants are immutable: as long as the context holds the same variant instance, the stored experience is the same.
+	 */
+	private long getStoredExperiencePerItem() {
+		ItemVariant variant = ctx.getItemVariant();
+		if (variant != lastVariant) {
+			lastStoredExperience = ExperienceItemVariantCache.getStoredExperience(variant);
+			lastVariant = variant;
+		}
+		return lastStoredExperience;
 	}
 
 	@Override
@@ -0,0 +1,97 @@
+package de.dafuqs.thefabricexperience.impl.storage;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.context.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.base.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.entity.player.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Combines the experience storing items of an inventory into a single {@link ExperienceStorage}.
+ * Slots are filled and drained in order. Used for entities with an inventory, like storage minecarts.
+ */
+@ApiStatus.Internal
+@SuppressWarnings("UnstableApiUsage")
+public class InventoryExperienceStorage implements ExperienceStorage {
+
+	private final InventoryStorage inventory;
+
+	public InventoryExperienceStorage(InventoryStorage inventory) {
+		this.inventory = inventory;
+	}
+
+	/**
+	 * Find the experience storages of the items in the inventory, in slot order. Empty slots and items without one are skipped.
+	 *
+	 * @param player If not null, player slot contexts are used, so items split off from their stack can overflow into the rest of the inventory.
+	 */
+	public static List<ExperienceStorage> findItemStorages(InventoryStorage inventory, @Nullable PlayerEntity player) {
+		List<ExperienceStorage> storages = new ArrayList<>();
+		for (SingleSlotStorage<ItemVariant> slot : inventory.getSlots()) {
+			if (slot.isResourceBlank() || slot.getAmount() == 0) continue;
+
+			ContainerItemContext context = player == null ? ContainerItemContext.ofSingleSlot(slot) : ContainerItemContext.ofPlayerSlot(player, slot);
+			ExperienceStorage storage = context.find(ExperienceStorage.ITEM);
+			if (storage != null) {
+				storages.add(storage);
+			}
+		}
+		return storages;
+	}
+
+	private List<ExperienceStorage> findItemStorages() {
+		return findItemStorages(inventory, null);
+	}
+
+	@Override
+	public long insert(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		long inserted = 0;
+		for (ExperienceStorage storage : findItemStorages()) {
+			if (inserted == maxAmount) break;
+			if (storage.supportsInsertion()) {
+				inserted += storage.insert(maxAmount - inserted, transaction);
+			}
+		}
+		return inserted;
+	}
+
+	@Override
+	public long extract(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		long extracted = 0;
+		for (ExperienceStorage storage : findItemStorages()) {
+			if (extracted == maxAmount) break;
+			if (storage.supportsExtraction()) {
+				extracted += storage.extract(maxAmount - extracted, transaction);
+			}
+		}
+		return extracted;
+	}
+
+	@Override
+	public long getAmount() {
+		long amount = 0;
+		for (ExperienceStorage storage : findItemStorages()) {
+			amount += storage.getAmount();
+		}
+		return amount;
+	}
+
+	@Override
+	public long getCapacity() {
+		long capacity = 0;
+		for (ExperienceStorage storage : findItemStorages()) {
+			capacity += storage.getCapacity();
+		}
+		return capacity;
+	}
+
+}
@@ -0,0 +1,75 @@
+package de.dafuqs.thefabricexperience.impl.storage;
+
+import de.dafuqs.thefabricexperience.impl.jfr.*;
+import de.dafuqs.thefabricexperience.impl.metrics.*;
+import net.fabricmc.fabric.api.transfer.v1.context.*;
+import net.fabricmc.fabric.api.transfer.v1.item.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * Converts the items of a context to variants with a different stored experience, shared by the item experience storage implementations.
+ * Every conversion happens in a nested transaction, and is recorded in the metrics and as an {@link ItemExperienceEvent}.
+ */
+@ApiStatus.Internal
+@SuppressWarnings({"UnstableApiUsage"})
+final class ItemExperienceUpdates {
+
+	private ItemExperienceUpdates() {
+	}
+
+	/**
+	 * Try to set the experience of {@code count} items of the context to {@code experienceAmountPerCount}, return true if success.
+	 */
+	static boolean trySetExperience(ContainerItemContext ctx, long experienceAmountPerCount, long count, TransactionContext transaction) {
+		ItemExperienceEvent event = ExperienceEvents.beginItemUpdate();
+		ItemVariant currentVariant = ctx.getItemVariant();
+		ItemVariant newVariant = ExperienceItemVariantCache.withStoredExperience(currentVariant, experienceAmountPerCount);
+		boolean success = false;
+
+		// Try to convert exactly `count` items.
+		ExperienceMetrics.onTransactionsOpened(1);
+		try (Transaction nested = transaction.openNested()) {
+			if (ctx.extract(currentVariant, count, nested) == count && ctx.insert(newVariant, count, nested) == count) {
+				nested.commit();
+				ExperienceMetrics.onItemUpdate();
+				success = true;
+			}
+		}
+
+		if (event != null) {
+			ExperienceEvents.endItemUpdate(event, currentVariant, experienceAmountPerCount, count, success, transaction);
+		}
+		return success;
+	}
+
+	/**
+	 * Try to convert {@code changedCount} items of the context to {@code changedAmountPerCount},
+	 * and if {@code hasPartial} one more item to {@code partialAmount}. Return true if success.
+	 * Fails if the context has no room for the split off items, for example in single slot inventories.
+	 */
+	static boolean trySplitExperience(ContainerItemContext ctx, long changedCount, long changedAmountPerCount, boolean hasPartial, long partialAmount, TransactionContext transaction) {
+		ItemExperienceEvent event = ExperienceEvents.beginItemUpdate();
+		ItemVariant currentVariant = ctx.getItemVariant();
+		long convertedCount = changedCount + (hasPartial ? 1 : 0);
+		boolean success = false;
+
+		ExperienceMetrics.onTransactionsOpened(1);
+		try (Transaction nested = transaction.openNested()) {
+			if (ctx.extract(currentVariant, convertedCount, nested) == convertedCount
+					&& (changedCount == 0 || ctx.insert(ExperienceItemVariantCache.withStoredExperience(currentVariant, changedAmountPerCount), changedCount, nested) == changedCount)
+					&& (!hasPartial || ctx.insert(ExperienceItemVariantCache.withStoredExperience(currentVariant, partialAmount), 1, nested) == 1)) {
+				nested.commit();
+				ExperienceMetrics.onItemUpdate();
+				success = true;
+			}
+		}
+
+		if (event != null) {
+			// Recorded with the amount of the fully converted items, and the count of all converted items including the partial one
+			ExperienceEvents.endItemUpdate(event, currentVariant, changedCount > 0 ? changedAmountPerCount : partialAmount, convertedCount, success, transaction);
+		}
+		return success;
+	}
+
+}
@@ -0,0 +1,133 @@
+package de.dafuqs.thefabricexperience.impl.storage;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.api.storage.base.*;
+import de.dafuqs.thefabricexperience.mixin.*;
+import net.fabricmc.fabric.api.transfer.v1.storage.*;
+import net.fabricmc.fabric.api.transfer.v1.transaction.*;
+import net.minecraft.entity.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * The experience of an orb (including the orbs merged into it), as an extract-only {@link ExperienceStorage}.
+ * Extracted experience is taken from the orb once the outermost transaction is committed, and emptied orbs are discarded.
+ * There is a single storage per orb entity, kept on the entity itself.
+ */
+@ApiStatus.Internal
+@SuppressWarnings("UnstableApiUsage")
+public class OrbExperienceStorage extends LongSnapshotParticipant implements ExperienceStorage {
+
+	private final ExperienceOrbEntity orb;
+	private long pendingExtracted = 0;
+
+	private OrbExperienceStorage(ExperienceOrbEntity orb) {
+		this.orb = orb;
+	}
+
+	public static OrbExperienceStorage of(ExperienceOrbEntity orb) {
+		ExperienceStorageHolder holder = (ExperienceStorageHolder) orb;
+		if (holder.thefabricexperience$getExperienceStorage() instanceof OrbExperienceStorage storage) {
+			return storage;
+		}
+		OrbExperienceStorage storage = new OrbExperienceStorage(orb);
+		holder.thefabricexperience$setExperienceStorage(storage);
+		return storage;
+	}
+
+	private long getOrbValue() {
+		if (orb.isRemoved()) {
+			return 0;
+		}
+		return (long) orb.getExperienceAmount() * ((ExperienceOrbEntityAccessor) orb).getPickingCount();
+	}
+
+	@Override
+	protected long createSnapshot() {
+		return pendingExtracted;
+	}
+
+	@Override
+	protected void readSnapshot(long snapshot) {
+		pendingExtracted = snapshot;
+	}
+
+	@Override
+	protected void onFinalCommit() {
+		long remaining = getOrbValue() - pendingExtracted;
+		pendingExtracted = 0;
+
+		ExperienceOrbEntityAccessor accessor = (ExperienceOrbEntityAccessor) orb;
+		if (remaining <= 0) {
+			orb.discard();
+		} else if (remaining <= Integer.MAX_VALUE) {
+			accessor.setAmount((int) remaining);
+			accessor.setPickingCount(1);
+		} else {
+			// Too much for a single amount: keep the amount, and let the picking count hold the rest.
+			// The remaining value is less than before, so the new count still fits. What does not divide evenly goes into a new orb.
+			int amount = orb.getExperienceAmount();
+			accessor.setPickingCount((int) (remaining / amount));
+			long leftover = remaining % amount;
+			if (leftover > 0) {
+				orb.world.spawnEntity(new ExperienceOrbEntity(orb.world, orb.getX(), orb.getY(), orb.getZ(), (int) leftover));
+			}
+		}
+	}
+
+	@Override
+	public boolean supportsInsertion() {
+		return false;
+	}
+
+	@Override
+	public long insert(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		return 0;
+	}
+
+	@Override
+	public long extract(long maxAmount, TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		long extracted = Math.min(maxAmount, getAmount());
+
+		if (extracted > 0) {
+			updateSnapshots(transaction);
+			pendingExtracted += extracted;
+			return extracted;
+		}
+
+		return 0;
+	}
+
+	@Override
+	public boolean hasExactSimulation() {
+		return true;
+	}
+
+	@Override
+	public long simulateInsert(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		return 0;
+	}
+
+	@Override
+	public long simulateExtract(long maxAmount, @Nullable TransactionContext transaction) {
+		StoragePreconditions.notNegative(maxAmount);
+
+		return Math.max(0, Math.min(maxAmount, getAmount()));
+	}
+
+	@Override
+	public long getAmount() {
+		return Math.max(0, getOrbValue() - pendingExtracted);
+	}
+
+	@Override
+	public long getCapacity() {
+		return getAmount();
+	}
+
+}
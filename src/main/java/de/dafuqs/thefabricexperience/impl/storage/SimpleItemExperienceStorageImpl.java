@@ -17,7 +17,7 @@ import org.jetbrains.annotations.*;
 @SuppressWarnings({"UnstableApiUsage"})
 public class SimpleItemExperienceStorageImpl implements ExperienceStorage {
 	
-	public static ExperienceStorage createSimpleStorage(ContainerItemContext ctx, long capacity, long maxInsert, long maxExtract) {
+	public static ExperienceStorage createSimpleStorage(ContainerItemContext ctx, long capacity, long maxInsert, long maxExtract, SimpleExperienceStorageItem.FillMode fillMode) {
 		StoragePreconditions.notNegative(capacity);
 		StoragePreconditions.notNegative(maxInsert);
 		StoragePreconditions.notNegative(maxExtract);
@@ -25,7 +25,7 @@ public class SimpleItemExperienceStorageImpl implements ExperienceStorage {
 		Item startingItem = ctx.getItemVariant().getItem();
 
 		return new DelegatingExperienceStorage(
-				new SimpleItemExperienceStorageImpl(ctx, capacity, maxInsert, maxExtract),
+				new SimpleItemExperienceStorageImpl(ctx, capacity, maxInsert, maxExtract, fillMode),
 				() -> ctx.getItemVariant().isOf(startingItem) && ctx.getAmount() > 0
 		);
 	}
@@ -33,31 +33,16 @@ public class SimpleItemExperienceStorageImpl implements ExperienceStorage {
 	private final ContainerItemContext ctx;
 	private final long capacity;
 	private final long maxInsert, maxExtract;
+	private final SimpleExperienceStorageItem.FillMode fillMode;
+	private @Nullable ItemVariant lastVariant;
+	private long lastStoredExperience;
 
-	private SimpleItemExperienceStorageImpl(ContainerItemContext ctx, long capacity, long maxInsert, long maxExtract) {
+	private SimpleItemExperienceStorageImpl(ContainerItemContext ctx, long capacity, long maxInsert, long maxExtract, SimpleExperienceStorageItem.FillMode fillMode) {
 		this.ctx = ctx;
 		this.capacity = capacity;
 		this.maxInsert = maxInsert;
 		this.maxExtract = maxExtract;
-	}
-
-	/**
-	 * Try to set the experience of the stack to {@code experienceAmountPerCount}, return true if success.
-	 */
-	private boolean trySetExperience(long experienceAmountPerCount, long count, TransactionContext transaction) {
-		ItemStack newStack = ctx.getItemVariant().toStack();
-		SimpleExperienceStorageItem.setStoredExperienceUnchecked(newStack, experienceAmountPerCount);
-		ItemVariant newVariant = ItemVariant.of(newStack);
-
-		// Try to convert exactly `count` items.
-		try (Transaction nested = transaction.openNested()) {
-			if (ctx.extract(ctx.getItemVariant(), count, nested) == count && ctx.insert(newVariant, count, nested) == count) {
-				nested.commit();
-				return true;
-			}
-		}
-
-		return false;
+		this.fillMode = fillMode;
 	}
 
 	@Override
@@ -69,12 +54,20 @@ public class SimpleItemExperienceStorageImpl implements ExperienceStorage {
 	public long insert(long maxAmount, TransactionContext transaction) {
 		long count = ctx.getAmount();
 
+		if (fillMode == SimpleExperienceStorageItem.FillMode.SEQUENTIAL) {
+			long inserted = insertSequential(count, maxAmount, transaction);
+			if (inserted > 0) {
+				return inserted;
+			}
+			// The split did not fit into the context, fill evenly instead
+		}
+
 		long maxAmountPerCount = maxAmount / count;
 		long currentAmountPerCount = getAmount() / count;
 		long insertedPerCount = Math.min(maxInsert, Math.min(maxAmountPerCount, capacity - currentAmountPerCount));
 
 		if (insertedPerCount > 0) {
-			if (trySetExperience(currentAmountPerCount + insertedPerCount, count, transaction)) {
+			if (ItemExperienceUpdates.trySetExperience(ctx, currentAmountPerCount + insertedPerCount, count, transaction)) {
 				return insertedPerCount * count;
 			}
 		}
@@ -91,12 +84,20 @@ public class SimpleItemExperienceStorageImpl implements ExperienceStorage {
 	public long extract(long maxAmount, TransactionContext transaction) {
 		long count = ctx.getAmount();
 
+		if (fillMode == SimpleExperienceStorageItem.FillMode.SEQUENTIAL) {
+			long extracted = extractSequential(count, maxAmount, transaction);
+			if (extracted > 0) {
+				return extracted;
+			}
+			// The split did not fit into the context, drain evenly instead
+		}
+
 		long maxAmountPerCount = maxAmount / count;
 		long currentAmountPerCount = getAmount() / count;
 		long extractedPerCount = Math.min(maxExtract, Math.min(maxAmountPerCount, currentAmountPerCount));
 
 		if (extractedPerCount > 0) {
-			if (trySetExperience(currentAmountPerCount - extractedPerCount, count, transaction)) {
+			if (ItemExperienceUpdates.trySetExperience(ctx, currentAmountPerCount - extractedPerCount, count, transaction)) {
 				return extractedPerCount * count;
 			}
 		}
@@ -104,9 +105,59 @@ public class SimpleItemExperienceStorageImpl implements ExperienceStorage {
 		return 0;
 	}
 
+	private long insertSequential(long count, long maxAmount, TransactionContext transaction) {
+		long currentAmountPerCount = getAmount() / count;
+		long insertedPerCount = Math.min(maxInsert, capacity - currentAmountPerCount);
+		if (insertedPerCount <= 0) {
+			return 0;
+		}
+
+		long filledCount = Math.min(count, maxAmount / insertedPerCount);
+		long partialAmount = filledCount < count ? maxAmount - filledCount * insertedPerCount : 0;
+
+		if (filledCount > 0 || partialAmount > 0) {
+			if (ItemExperienceUpdates.trySplitExperience(ctx, filledCount, currentAmountPerCount + insertedPerCount, partialAmount > 0, currentAmountPerCount + partialAmount, transaction)) {
+				return filledCount * insertedPerCount + partialAmount;
+			}
+		}
+
+		return 0;
+	}
+
+	private long extractSequential(long count, long maxAmount, TransactionContext transaction) {
+		long currentAmountPerCount = getAmount() / count;
+		long extractedPerCount = Math.min(maxExtract, currentAmountPerCount);
+		if (extractedPerCount <= 0) {
+			return 0;
+		}
+
+		long drainedCount = Math.min(count, maxAmount / extractedPerCount);
+		long partialAmount = drainedCount < count ? maxAmount - drainedCount * extractedPerCount : 0;
+
+		if (drainedCount > 0 || partialAmount > 0) {
+			if (ItemExperienceUpdates.trySplitExperience(ctx, drainedCount, currentAmountPerCount - extractedPerCount, partialAmount > 0, currentAmountPerCount - partialAmount, transaction)) {
+				return drainedCount * extractedPerCount + partialAmount;
+			}
+		}
+
+		return 0;
+	}
+
 	@Override
 	public long getAmount() {
-		return ctx.getAmount() * SimpleExperienceStorageItem.getStoredExperienceUnchecked(ctx.getItemVariant().getNbt());
+		return ctx.getAmount() * getStoredExperiencePerItem();
+	}
+
+	/**
+	 * Variants are immutable: as long as the context holds the same variant instance, the stored experience is the same.
+	 */
+	private long getStoredExperiencePerItem() {
+		ItemVariant variant = ctx.getItemVariant();
+		if (variant != lastVariant) {
+			lastStoredExperience = ExperienceItemVariantCache.getStoredExperience(variant);
+			lastVariant = variant;
+		}
+		return lastStoredExperience;
 	}
 
 	@Override
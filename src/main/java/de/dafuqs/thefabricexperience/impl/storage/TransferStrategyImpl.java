@@ -0,0 +1,92 @@
+package de.dafuqs.thefabricexperience.impl.storage;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+@ApiStatus.Internal
+public class TransferStrategyImpl {
+
+	public static final ExperienceTransferStrategy FILL_FIRST = (peers, maxAmount, transfer) -> {
+		long moved = 0;
+
+		for (ExperienceStorage peer : peers) {
+			if (moved >= maxAmount) {
+				break;
+			}
+			moved += transfer.transfer(peer, maxAmount - moved);
+		}
+
+		return moved;
+	};
+
+	public static final ExperienceTransferStrategy ROUND_ROBIN = TransferStrategyImpl::roundRobin;
+
+	public static final ExperienceTransferStrategy PROPORTIONAL = (peers, maxAmount, transfer) -> {
+		int size = peers.size();
+		long[] weights = new long[size];
+		double totalWeight = 0;
+		for (int i = 0; i < size; i++) {
+			weights[i] = transfer.weight(peers.get(i));
+			totalWeight += weights[i];
+		}
+
+		long moved = 0;
+		if (totalWeight > 0) {
+			for (int i = 0; i < size && moved < maxAmount; i++) {
+				long share = Math.min(maxAmount - moved, (long) (maxAmount * (weights[i] / totalWeight)));
+				if (share > 0) {
+					moved += transfer.transfer(peers.get(i), share);
+				}
+			}
+		}
+
+		// Rounding leftovers, or nothing to weigh by at all
+		if (moved < maxAmount) {
+			moved += roundRobin(peers, maxAmount - moved, transfer);
+		}
+
+		return moved;
+	};
+
+	private static long roundRobin(List<ExperienceStorage> peers, long maxAmount, ExperienceTransferStrategy.PeerTransfer transfer) {
+		int activeCount = peers.size();
+		int[] active = new int[activeCount];
+		for (int i = 0; i < activeCount; i++) {
+			active[i] = i;
+		}
+
+		// Every round either hands out everything that is left, or drops at least one saturated peer.
+		long moved = 0;
+		while (moved < maxAmount && activeCount > 0) {
+			long remaining = maxAmount - moved;
+			long share = remaining / activeCount;
+			long extra = remaining % activeCount;
+
+			int stillActive = 0;
+			for (int i = 0; i < activeCount; i++) {
+				long wanted = share + (i < extra ? 1 : 0);
+				if (wanted == 0) {
+					active[stillActive++] = active[i];
+					continue;
+				}
+
+				long peerMoved = transfer.transfer(peers.get(active[i]), wanted);
+				moved += peerMoved;
+				if (peerMoved == wanted) {
+					active[stillActive++] = active[i];
+				}
+			}
+
+			if (stillActive == activeCount && moved < maxAmount) {
+				// Only peers that did not get anything this round are left: nothing will change anymore.
+				break;
+			}
+			activeCount = stillActive;
+		}
+
+		return moved;
+	}
+
+}
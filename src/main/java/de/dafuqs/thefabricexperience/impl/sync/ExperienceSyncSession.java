@@ -0,0 +1,157 @@
+package de.dafuqs.thefabricexperience.impl.sync;
+
+import io.netty.buffer.*;
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.network.*;
+import net.minecraft.util.registry.*;
+import net.minecraft.world.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * The sync state of a single connection: what its client currently knows, and what changed since the last packet.
+ *
+ * <p>Sessions are kept per player UUID, so they survive respawns, which replace the player entity but not the connection.
+ * When the player changes worlds, the session starts over, and the next packet tells the client to do the same.
+ */
+@ApiStatus.Internal
+public class ExperienceSyncSession {
+	static final byte ENTRY_UPDATE = 0;
+	static final byte ENTRY_REMOVE = 1;
+
+	private RegistryKey<World> worldKey;
+	private boolean reset = true;
+
+	// The values the client has after the next packet, and the values it has right now
+	private final Long2LongOpenHashMap amounts = new Long2LongOpenHashMap();
+	private final Long2LongOpenHashMap capacities = new Long2LongOpenHashMap();
+	private final Long2LongOpenHashMap sentAmounts = new Long2LongOpenHashMap();
+	private final Long2LongOpenHashMap sentCapacities = new Long2LongOpenHashMap();
+	// Sorted, so the position deltas in the packet stay small
+	private final LongAVLTreeSet dirty = new LongAVLTreeSet();
+
+	public ExperienceSyncSession(RegistryKey<World> worldKey) {
+		this.worldKey = worldKey;
+	}
+
+	public RegistryKey<World> getWorldKey() {
+		return worldKey;
+	}
+
+	/**
+	 * Forget everything, and make the client do the same with the next packet.
+	 */
+	public void reset(RegistryKey<World> worldKey) {
+		this.worldKey = worldKey;
+		amounts.clear();
+		capacities.clear();
+		sentAmounts.clear();
+		sentCapacities.clear();
+		dirty.clear();
+		reset = true;
+	}
+
+	public boolean isKnown(long pos) {
+		return amounts.containsKey(pos);
+	}
+
+	/**
+	 * Queue the passed values, if the client does not know them yet.
+	 *
+	 * @return true if something was queued.
+	 */
+	public boolean update(long pos, long amount, long capacity) {
+		if (amounts.containsKey(pos) && amounts.get(pos) == amount && capacities.get(pos) == capacity) {
+			return false;
+		}
+		amounts.put(pos, amount);
+		capacities.put(pos, capacity);
+		dirty.add(pos);
+		return true;
+	}
+
+	/**
+	 * Queue the removal of the passed position, if the client knows it.
+	 *
+	 * @return true if something was queued.
+	 */
+	public boolean remove(long pos) {
+		if (!amounts.containsKey(pos)) {
+			return false;
+		}
+		amounts.remove(pos);
+		capacities.remove(pos);
+		dirty.add(pos);
+		return true;
+	}
+
+	/**
+	 * Queue the removal of all known positions that the passed predicate does not keep.
+	 *
+	 * @return true if something was queued.
+	 */
+	public boolean removeIf(LongPredicate predicate) {
+		LongArrayList removed = new LongArrayList();
+		LongIterator iterator = amounts.keySet().iterator();
+		while (iterator.hasNext()) {
+			long pos = iterator.nextLong();
+			if (predicate.test(pos)) {
+				removed.add(pos);
+			}
+		}
+		for (int i = 0; i < removed.size(); i++) {
+			remove(removed.getLong(i));
+		}
+		return !removed.isEmpty();
+	}
+
+	/**
+	 * Encode everything queued since the last call. Positions are written as zigzag varlong deltas to the previous entry,
+	 * amounts and capacities as zigzag varlong deltas to what the client currently has.
+	 *
+	 * @return The packet, or null if there is nothing to send.
+	 */
+	public @Nullable PacketByteBuf flush() {
+		if (dirty.isEmpty() && !reset) {
+			return null;
+		}
+
+		PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+		buf.writeIdentifier(worldKey.getValue());
+		buf.writeBoolean(reset);
+		buf.writeVarInt(dirty.size());
+
+		long previousPos = 0;
+		LongIterator iterator = dirty.iterator();
+		while (iterator.hasNext()) {
+			long pos = iterator.nextLong();
+			buf.writeVarLong(zigzag(pos - previousPos));
+			previousPos = pos;
+
+			if (amounts.containsKey(pos)) {
+				long amount = amounts.get(pos);
+				long capacity = capacities.get(pos);
+				buf.writeByte(ENTRY_UPDATE);
+				buf.writeVarLong(zigzag(amount - sentAmounts.get(pos)));
+				buf.writeVarLong(zigzag(capacity - sentCapacities.get(pos)));
+				sentAmounts.put(pos, amount);
+				sentCapacities.put(pos, capacity);
+			} else {
+				buf.writeByte(ENTRY_REMOVE);
+				sentAmounts.remove(pos);
+				sentCapacities.remove(pos);
+			}
+		}
+
+		dirty.clear();
+		reset = false;
+		return buf;
+	}
+
+	static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
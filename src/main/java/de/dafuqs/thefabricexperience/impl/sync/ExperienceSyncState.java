@@ -0,0 +1,88 @@
+package de.dafuqs.thefabricexperience.impl.sync;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.network.*;
+import net.minecraft.util.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * The values a client received from its {@link ExperienceSyncSession}.
+ *
+ * <p>Packets are decoded with {@link #decode} on the network thread, and applied with {@link #apply} on the client thread.
+ */
+@ApiStatus.Internal
+public class ExperienceSyncState {
+	private final Long2LongOpenHashMap amounts = new Long2LongOpenHashMap();
+	private final Long2LongOpenHashMap capacities = new Long2LongOpenHashMap();
+	private @Nullable Identifier worldId;
+
+	public boolean contains(long pos) {
+		return amounts.containsKey(pos);
+	}
+
+	public long getAmount(long pos) {
+		return amounts.get(pos);
+	}
+
+	public long getCapacity(long pos) {
+		return capacities.get(pos);
+	}
+
+	public int size() {
+		return amounts.size();
+	}
+
+	public void clear() {
+		amounts.clear();
+		capacities.clear();
+		worldId = null;
+	}
+
+	/**
+	 * Decode a packet written by {@link ExperienceSyncSession#flush}. The passed buffer is not kept.
+	 */
+	public static Update decode(PacketByteBuf buf) {
+		Identifier worldId = buf.readIdentifier();
+		boolean reset = buf.readBoolean();
+		int count = buf.readVarInt();
+
+		long[] positions = new long[count];
+		boolean[] removed = new boolean[count];
+		long[] amountDeltas = new long[count];
+		long[] capacityDeltas = new long[count];
+
+		long previousPos = 0;
+		for (int i = 0; i < count; i++) {
+			previousPos += ExperienceSyncSession.unzigzag(buf.readVarLong());
+			positions[i] = previousPos;
+			removed[i] = buf.readByte() == ExperienceSyncSession.ENTRY_REMOVE;
+			if (!removed[i]) {
+				amountDeltas[i] = ExperienceSyncSession.unzigzag(buf.readVarLong());
+				capacityDeltas[i] = ExperienceSyncSession.unzigzag(buf.readVarLong());
+			}
+		}
+		return new Update(worldId, reset, positions, removed, amountDeltas, capacityDeltas);
+	}
+
+	public void apply(Update update) {
+		// The server starts over when the player changes worlds. The world id is checked too, in case a reset was missed.
+		if (update.reset || !update.worldId.equals(worldId)) {
+			clear();
+			worldId = update.worldId;
+		}
+
+		for (int i = 0; i < update.positions.length; i++) {
+			long pos = update.positions[i];
+			if (update.removed[i]) {
+				amounts.remove(pos);
+				capacities.remove(pos);
+			} else {
+				amounts.put(pos, amounts.get(pos) + update.amountDeltas[i]);
+				capacities.put(pos, capacities.get(pos) + update.capacityDeltas[i]);
+			}
+		}
+	}
+
+	public record Update(Identifier worldId, boolean reset, long[] positions, boolean[] removed, long[] amountDeltas, long[] capacityDeltas) {
+	}
+}
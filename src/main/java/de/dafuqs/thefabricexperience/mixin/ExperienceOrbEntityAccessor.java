@@ -0,0 +1,19 @@
+package de.dafuqs.thefabricexperience.mixin;
+
+import net.minecraft.entity.*;
+import org.spongepowered.asm.mixin.*;
+import org.spongepowered.asm.mixin.gen.*;
+
+@Mixin(ExperienceOrbEntity.class)
+public interface ExperienceOrbEntityAccessor {
+	
+	@Accessor("amount")
+	void setAmount(int amount);
+	
+	@Accessor("pickingCount")
+	int getPickingCount();
+	
+	@Accessor("pickingCount")
+	void setPickingCount(int pickingCount);
+	
+}
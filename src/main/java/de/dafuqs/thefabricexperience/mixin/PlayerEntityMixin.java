@@ -0,0 +1,25 @@
+package de.dafuqs.thefabricexperience.mixin;
+
+import de.dafuqs.thefabricexperience.api.storage.*;
+import de.dafuqs.thefabricexperience.impl.storage.*;
+import net.minecraft.entity.player.*;
+import org.jetbrains.annotations.*;
+import org.spongepowered.asm.mixin.*;
+
+@Mixin(PlayerEntity.class)
+public abstract class PlayerEntityMixin implements ExperienceStorageHolder {
+	
+	@Unique
+	private @Nullable ExperienceStorage thefabricexperience$experienceStorage;
+	
+	@Override
+	public @Nullable ExperienceStorage thefabricexperience$getExperienceStorage() {
+		return thefabricexperience$experienceStorage;
+	}
+	
+	@Override
+	public void thefabricexperience$setExperienceStorage(ExperienceStorage storage) {
+		thefabricexperience$experienceStorage = storage;
+	}
+	
+}